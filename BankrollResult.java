@@ -0,0 +1,189 @@
+/**
+ * The BankrollResult class accumulates the outcomes of simulated sessions: how many ended in ruin,
+ * how many cashed out, and the distributions of session length, peak bank and final score. Every
+ * distribution is a fixed-size {@link CountHistogram}, so the result takes the same memory after a
+ * thousand sessions as after a billion. Partial results from parallel tasks are combined with
+ * {@link #merge(BankrollResult)}.
+ */
+public class BankrollResult {
+    /** The z-score of a two-sided 95% confidence interval. */
+    private static final double Z_95 = 1.959964;
+
+    private long sessions;
+    private long ruined;
+    private long cashedOut;
+    private long rounds;
+    private long wagered;
+    private double score;
+    private final CountHistogram sessionLengths = new CountHistogram();
+    private final CountHistogram ruinLengths = new CountHistogram();
+    private final CountHistogram peakBanks = new CountHistogram();
+    private final CountHistogram handsWon = new CountHistogram();
+
+    /**
+     * Records one finished session.
+     *
+     * @param length The number of rounds played.
+     * @param finalBalance The balance the session ended with.
+     * @param highestBank The highest balance reached.
+     * @param won The number of hands won.
+     * @param ruin Whether the session ended because the balance could not cover a bet.
+     * @param target Whether the session ended by reaching the cash-out balance.
+     * @param sessionWagered The total of every bet placed.
+     */
+    public void record(int length, int finalBalance, int highestBank, int won, boolean ruin, boolean target,
+                       long sessionWagered) {
+        sessions++;
+        rounds += length;
+        wagered += sessionWagered;
+        score += finalBalance - BlackjackGame.STARTING_BALANCE;
+        sessionLengths.record(length);
+        peakBanks.record(highestBank);
+        handsWon.record(won);
+        if (ruin) {
+            ruined++;
+            ruinLengths.record(length);
+        } else if (target) {
+            cashedOut++;
+        }
+    }
+
+    /**
+     * Adds another result's sessions to this one.
+     *
+     * @param other The result to merge in.
+     * @return This result.
+     */
+    public BankrollResult merge(BankrollResult other) {
+        sessions += other.sessions;
+        ruined += other.ruined;
+        cashedOut += other.cashedOut;
+        rounds += other.rounds;
+        wagered += other.wagered;
+        score += other.score;
+        sessionLengths.merge(other.sessionLengths);
+        ruinLengths.merge(other.ruinLengths);
+        peakBanks.merge(other.peakBanks);
+        handsWon.merge(other.handsWon);
+        return this;
+    }
+
+    /**
+     * Retrieves the number of sessions recorded.
+     *
+     * @return The session count.
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Retrieves the number of rounds played across every session.
+     *
+     * @return The round count.
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Retrieves the fraction of sessions that ended in ruin.
+     *
+     * @return The risk of ruin, from 0 to 1.
+     */
+    public double getRiskOfRuin() {
+        return sessions == 0 ? 0 : (double) ruined / sessions;
+    }
+
+    /**
+     * Retrieves the fraction of sessions that reached the cash-out balance.
+     *
+     * @return The cash-out rate, from 0 to 1.
+     */
+    public double getCashOutRate() {
+        return sessions == 0 ? 0 : (double) cashedOut / sessions;
+    }
+
+    /**
+     * Retrieves the mean session score, the final balance minus the starting balance.
+     *
+     * @return The mean score.
+     */
+    public double getMeanScore() {
+        return sessions == 0 ? 0 : score / sessions;
+    }
+
+    /**
+     * Retrieves the net result of every session as a fraction of the total amount bet.
+     *
+     * @return The player's return per unit bet; negative when the house wins.
+     */
+    public double getReturnPerBet() {
+        return wagered == 0 ? 0 : score / wagered;
+    }
+
+    /**
+     * Retrieves the distribution of rounds played per session.
+     *
+     * @return The histogram.
+     */
+    public CountHistogram getSessionLengths() {
+        return sessionLengths;
+    }
+
+    /**
+     * Retrieves the distribution of rounds played before ruin, over the ruined sessions only.
+     *
+     * @return The histogram.
+     */
+    public CountHistogram getRuinLengths() {
+        return ruinLengths;
+    }
+
+    /**
+     * Retrieves the distribution of each session's highest bank.
+     *
+     * @return The histogram.
+     */
+    public CountHistogram getPeakBanks() {
+        return peakBanks;
+    }
+
+    /**
+     * Retrieves the distribution of hands won per session.
+     *
+     * @return The histogram.
+     */
+    public CountHistogram getHandsWon() {
+        return handsWon;
+    }
+
+    /**
+     * Computes the half-width of the 95% confidence interval of a proportion.
+     *
+     * @param p The observed proportion.
+     * @return The half-width.
+     */
+    private double interval(double p) {
+        return sessions == 0 ? 0 : Z_95 * Math.sqrt(p * (1 - p) / sessions);
+    }
+
+    /**
+     * Formats the risk of ruin, cash-out rate and the distributions as a multi-line report.
+     *
+     * @return The report text.
+     */
+    @Override
+    public String toString() {
+        double ruin = getRiskOfRuin();
+        double cashOut = getCashOutRate();
+        return String.format("Sessions: %d, Rounds: %d%n", sessions, rounds)
+                + String.format("Risk of Ruin: %.4f%% +/- %.4f%%%n", ruin * 100, interval(ruin) * 100)
+                + String.format("Cash-out Rate: %.4f%% +/- %.4f%%%n", cashOut * 100, interval(cashOut) * 100)
+                + String.format("Mean Score: %.2f, Return per Bet: %.4f%%%n", getMeanScore(), getReturnPerBet() * 100)
+                + "Session Length: " + sessionLengths + System.lineSeparator()
+                + "Rounds to Ruin: " + ruinLengths + System.lineSeparator()
+                + "Highest Bank: " + peakBanks + System.lineSeparator()
+                + "Hands Won: " + handsWon;
+    }
+}
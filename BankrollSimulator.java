@@ -0,0 +1,249 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * The BankrollSimulator class measures how a {@link BettingStrategy} fares over whole sessions. Each
+ * session follows the game's bankroll rules: it starts at {@link BlackjackGame#STARTING_BALANCE}, bets
+ * at least 1 and at most the balance, and ends in ruin once the balance cannot cover the table
+ * minimum, or cashes out on reaching a target balance or a round limit. Sessions run on a fork/join
+ * pool in fixed-size chunks, each with its own shoe and its own generator of the chosen {@link ShoeRandom}
+ * kind, split or jumped off in a fixed order, so a seed gives the same result for any thread count. Only fixed-size histograms are
+ * kept, never the sessions themselves; given a {@link ResultExporter}, every session is also streamed
+ * to disk.
+ */
+public class BankrollSimulator {
+    /** The number of sessions one task plays before it stops splitting. */
+    private static final long CHUNK_SESSIONS = 1 << 10;
+
+    private final RuleSet rules;
+    private final PlayerStrategy playerStrategy;
+    private final BettingStrategy bettingStrategy;
+    private int tableMin = 1;
+    private int tableMax = Integer.MAX_VALUE;
+    private int cashOutBalance = 2 * BlackjackGame.STARTING_BALANCE;
+    private int maxRounds = 1000;
+    private ResultExporter exporter;
+    private ShoeRandom shoeRandom = ShoeRandom.SPLITTABLE;
+
+    /**
+     * Constructs a simulator for the given rules and strategies.
+     *
+     * @param rules The rules of the game, including the shoe configuration.
+     * @param playerStrategy The strategy making the player's hit and stand decisions.
+     * @param bettingStrategy The strategy sizing the player's bets.
+     */
+    public BankrollSimulator(RuleSet rules, PlayerStrategy playerStrategy, BettingStrategy bettingStrategy) {
+        this.rules = rules;
+        this.playerStrategy = playerStrategy;
+        this.bettingStrategy = bettingStrategy;
+    }
+
+    /**
+     * Sets the smallest and largest bet the table accepts.
+     *
+     * @param min The table minimum, at least 1.
+     * @param max The table maximum, at least the minimum.
+     */
+    public void setTableLimits(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Bad table limits: " + min + " to " + max);
+        }
+        tableMin = min;
+        tableMax = max;
+    }
+
+    /**
+     * Sets when a session that has not been ruined cashes out.
+     *
+     * @param balance The balance at which the player leaves the table.
+     * @param rounds The most rounds a session plays.
+     */
+    public void setCashOut(int balance, int rounds) {
+        cashOutBalance = balance;
+        maxRounds = rounds;
+    }
+
+    /**
+     * Sets the exporter every finished session is streamed to.
+     *
+     * @param exporter A session exporter, or null to export nothing.
+     */
+    public void setExporter(ResultExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Sets the kind of generator every chunk's shoe shuffles with. With {@link ShoeRandom#SECURE} the
+     * chunks are not derived from the seed, so runs are not reproducible.
+     *
+     * @param shoeRandom The generator choice.
+     */
+    public void setRandom(ShoeRandom shoeRandom) {
+        this.shoeRandom = shoeRandom;
+    }
+
+    /**
+     * Plays the given number of sessions on the given fork/join pool.
+     *
+     * @param sessions The number of sessions to play.
+     * @param seed The seed the whole run is derived from.
+     * @param pool The pool to run the tasks on.
+     * @return The combined result.
+     */
+    public BankrollResult run(long sessions, long seed, ForkJoinPool pool) {
+        return pool.invoke(new SessionTask(sessions, shoeRandom.create(seed), 1));
+    }
+
+    /**
+     * Plays a chunk of sessions at one table, each starting from a fresh bankroll.
+     *
+     * @param sessions The number of sessions to play.
+     * @param random The random stream owned by this chunk.
+     * @param chunk The id the chunk's sessions are exported under.
+     * @return The chunk's result.
+     */
+    private BankrollResult playSessions(long sessions, RandomGenerator random, int chunk) {
+        RuleSet rules = this.rules;
+        BlackjackEngine engine = new BlackjackEngine(rules.newShoe(random), rules);
+        ShoeComposition shoe = engine.getShoe().getComposition();
+        Hand playerHand = engine.getPlayerHand();
+        BankrollResult result = new BankrollResult();
+        long totalRounds = 0;
+        ResultExporter.Sink sink = exporter != null ? exporter.newSink() : null;
+
+        for (long s = 0; s < sessions; s++) {
+            int balance = BlackjackGame.STARTING_BALANCE;
+            int highestBank = balance;
+            int handsWon = 0;
+            int lastBet = 0;
+            int lastResult = BlackjackEngine.IN_PROGRESS;
+            long wagered = 0;
+            int round = 0;
+
+            while (balance >= tableMin && balance < cashOutBalance && round < maxRounds) {
+                int wanted = bettingStrategy.nextBet(balance, lastBet, lastResult, shoe);
+                int bet = Math.max(tableMin, Math.min(wanted, Math.min(tableMax, balance)));
+
+                int outcome = engine.playRound(playerStrategy);
+                if (outcome == BlackjackEngine.PLAYER_WINS) {
+                    balance += rules.winnings(bet, playerHand);
+                    handsWon++;
+                    highestBank = Math.max(highestBank, balance);
+                } else if (outcome == BlackjackEngine.DEALER_WINS) {
+                    balance -= bet;
+                }
+                engine.resetRound();
+
+                wagered += bet;
+                lastBet = bet;
+                lastResult = outcome;
+                round++;
+            }
+
+            totalRounds += round;
+            boolean ruin = balance < tableMin;
+            boolean target = balance >= cashOutBalance;
+            result.record(round, balance, highestBank, handsWon, ruin, target, wagered);
+            if (sink != null) {
+                sink.session(chunk, (int) s, round, balance, highestBank, handsWon,
+                        ruin ? ResultExporter.END_RUIN : target ? ResultExporter.END_CASH_OUT : ResultExporter.END_ROUND_LIMIT, wagered);
+            }
+        }
+        if (sink != null) {
+            sink.close();
+        }
+        EngineMetrics.get().roundsFinished(totalRounds);
+        return result;
+    }
+
+    /**
+     * Counts the chunks a task of the given size ends up playing in.
+     *
+     * @param sessions The number of sessions in the task.
+     * @return The number of chunks.
+     */
+    private static long chunks(long sessions) {
+        return sessions <= CHUNK_SESSIONS ? 1 : chunks(sessions / 2) + chunks(sessions - sessions / 2);
+    }
+
+    /**
+     * A task that halves its range of sessions until each half fits in one chunk. The random stream for
+     * each half is divided off before forking, so the streams depend only on the range, not on scheduling.
+     * Tasks are numbered like a binary heap, root 1, so every chunk has a distinct exported id.
+     */
+    private class SessionTask extends RecursiveTask<BankrollResult> {
+        private final long sessions;
+        private final RandomGenerator random;
+        private final int chunk;
+
+        SessionTask(long sessions, RandomGenerator random, int chunk) {
+            this.sessions = sessions;
+            this.random = random;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected BankrollResult compute() {
+            if (sessions <= CHUNK_SESSIONS) {
+                return playSessions(sessions, random, chunk);
+            }
+
+            long half = sessions / 2;
+            RandomGenerator[] halves = shoeRandom.halves(random, chunks(half));
+            SessionTask left = new SessionTask(half, halves[0], chunk * 2);
+            SessionTask right = new SessionTask(sessions - half, halves[1], chunk * 2 + 1);
+            left.fork();
+            BankrollResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+
+    /**
+     * Runs the simulator from the command line and prints the report.
+     *
+     * @param args Optional session count, betting strategy (see {@link BettingStrategy#parse(String)}),
+     *             seed, thread count, cash-out balance, round limit, table maximum, rule list for
+     *             {@link RuleSet#parse(String)} ("" for the default rules), session export file ("-" for
+     *             none) and shoe generator for {@link ShoeRandom#parse(String)}.
+     * @throws IOException If the export file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        long sessions = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        String betting = args.length > 1 ? args[1] : "flat=10";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int cashOut = args.length > 4 ? Integer.parseInt(args[4]) : 2 * BlackjackGame.STARTING_BALANCE;
+        int rounds = args.length > 5 ? Integer.parseInt(args[5]) : 1000;
+        int tableMax = args.length > 6 ? Integer.parseInt(args[6]) : Integer.MAX_VALUE;
+        RuleSet rules = args.length > 7 ? RuleSet.parse(args[7]) : RuleSet.DEFAULT;
+
+        BankrollSimulator simulator = new BankrollSimulator(rules, StrategyTable.forRules(rules), BettingStrategy.parse(betting));
+        simulator.setTableLimits(1, tableMax);
+        simulator.setCashOut(cashOut, rounds);
+        ResultExporter exporter = args.length > 8 && !args[8].equals("-") ? ResultExporter.forSessions(new File(args[8])) : null;
+        simulator.setExporter(exporter);
+        ShoeRandom shoeRandom = args.length > 9 ? ShoeRandom.parse(args[9]) : ShoeRandom.SPLITTABLE;
+        simulator.setRandom(shoeRandom);
+        EngineMetrics.register();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        long start = System.nanoTime();
+        BankrollResult result = simulator.run(sessions, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        if (exporter != null) {
+            exporter.close();
+            System.out.printf("Exported %d sessions to %s (producers waited %.1f ms)%n",
+                    exporter.getRows(), args[8], exporter.getStallNanos() / 1e6);
+        }
+
+        System.out.println(result);
+        System.out.printf("Seed: %d, Betting: %s, Cash Out: %d or %d rounds, Table Max: %d, Threads: %d%n",
+                seed, betting, cashOut, rounds, tableMax, threads);
+        System.out.println("Rules: " + rules + ", Random: " + shoeRandom.getAlgorithm());
+        System.out.printf("Time: %.2fs (%.0f sessions/s, %.0f hands/s)%n", seconds, sessions / seconds, result.getRounds() / seconds);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The BatchHandEvaluator class scores a {@link HandBatch} with exactly the rules of {@link Hand} and
+ * {@link BlackjackEngine#checkGameOver()} under {@link RuleSet#DEFAULT}. When the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} the batch is scored with SIMD lanes by
+ * {@link VectorHandEvaluator}; otherwise, and for the rounds left over after the last full vector,
+ * a branch-light scalar loop is used. Both paths give identical results.
+ */
+public final class BatchHandEvaluator {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    // The vector class is only loaded once the incubator module is known to be present
+    private static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()
+            && !Boolean.getBoolean("blackjack.scalar");
+
+    private BatchHandEvaluator() {
+    }
+
+    /**
+     * Checks whether batches are scored with the Vector API.
+     *
+     * @return True if the incubator module is available and not disabled with {@code -Dblackjack.scalar=true}.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Scores every round in the batch with the fastest available path.
+     *
+     * @param batch The batch, whose outputs are overwritten.
+     */
+    public static void evaluate(HandBatch batch) {
+        if (VECTOR_AVAILABLE) {
+            VectorHandEvaluator.evaluate(batch);
+        } else {
+            evaluateScalar(batch, 0, batch.size());
+        }
+    }
+
+    /**
+     * Scores a range of rounds in the batch one round at a time.
+     *
+     * @param batch The batch, whose outputs are overwritten.
+     * @param from The index of the first round, inclusive.
+     * @param to The index of the last round, exclusive.
+     */
+    public static void evaluateScalar(HandBatch batch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int playerFlags = flags(batch.playerHard[i], batch.playerAces[i], batch.playerCards[i]);
+            int dealerFlags = flags(batch.dealerHard[i], batch.dealerAces[i], batch.dealerCards[i]);
+            int playerValue = value(batch.playerHard[i], batch.playerAces[i], batch.playerCards[i]);
+            int dealerValue = value(batch.dealerHard[i], batch.dealerAces[i], batch.dealerCards[i]);
+
+            batch.playerValues[i] = playerValue;
+            batch.dealerValues[i] = dealerValue;
+            batch.playerFlags[i] = playerFlags;
+            batch.dealerFlags[i] = dealerFlags;
+            batch.results[i] = result(playerValue, playerFlags, dealerValue, dealerFlags, batch.dealerPlayed[i] != 0);
+        }
+    }
+
+    /**
+     * Computes a hand's value the way {@link Hand} does, counting a Five-Card Charlie as 21.
+     *
+     * @param hard The hard total.
+     * @param aces The ace count.
+     * @param cards The card count.
+     * @return The hand value.
+     */
+    static int value(int hard, int aces, int cards) {
+        hard = Math.min(hard, 31);
+        int value = aces > 0 && hard + 10 <= 21 ? hard + 10 : hard;
+        return cards == Hand.CHARLIE_CARDS && value < 21 ? 21 : value;
+    }
+
+    /**
+     * Computes a hand's flags the way {@link Hand} does.
+     *
+     * @param hard The hard total.
+     * @param aces The ace count.
+     * @param cards The card count.
+     * @return A combination of the {@link HandBatch} flags.
+     */
+    static int flags(int hard, int aces, int cards) {
+        hard = Math.min(hard, 31);
+        boolean soft = aces > 0 && hard + 10 <= 21;
+        int counted = soft ? hard + 10 : hard;
+        boolean charlie = cards == Hand.CHARLIE_CARDS && counted < 21;
+        int value = charlie ? 21 : counted;
+
+        int flags = 0;
+        if (soft) {
+            flags |= HandBatch.SOFT;
+        }
+        if (value > 21) {
+            flags |= HandBatch.BUST;
+        }
+        if (cards == 2 && value == 21) {
+            flags |= HandBatch.BLACKJACK;
+        }
+        if (charlie) {
+            flags |= HandBatch.CHARLIE;
+        }
+        return flags;
+    }
+
+    /**
+     * Resolves a round the way {@link BlackjackEngine#checkGameOver()} does.
+     *
+     * @param playerValue The player's hand value.
+     * @param playerFlags The player's hand flags.
+     * @param dealerValue The dealer's hand value.
+     * @param dealerFlags The dealer's hand flags.
+     * @param dealerPlayed Whether the dealer has played out their hand.
+     * @return The result code.
+     */
+    static int result(int playerValue, int playerFlags, int dealerValue, int dealerFlags, boolean dealerPlayed) {
+        boolean playerBlackjack = (playerFlags & HandBatch.BLACKJACK) != 0;
+        boolean dealerBlackjack = (dealerFlags & HandBatch.BLACKJACK) != 0;
+        if (playerBlackjack && dealerBlackjack) {
+            return BlackjackEngine.TIE;
+        }
+        if (playerBlackjack) {
+            return BlackjackEngine.PLAYER_WINS;
+        }
+        if (dealerBlackjack) {
+            return BlackjackEngine.DEALER_WINS;
+        }
+        if (!dealerPlayed) {
+            return playerValue > 21 ? BlackjackEngine.DEALER_WINS : BlackjackEngine.IN_PROGRESS;
+        }
+        if (playerValue == dealerValue) {
+            return BlackjackEngine.TIE;
+        }
+        return dealerValue > 21 || playerValue > dealerValue ? BlackjackEngine.PLAYER_WINS : BlackjackEngine.DEALER_WINS;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The BettingStrategy interface sizes a headless player's bet before each round. The bankroll
+ * simulator keeps every bet between the table limits and the player's balance, so a strategy only
+ * says what it would like to bet.
+ */
+public interface BettingStrategy {
+
+    /**
+     * Decides the next bet.
+     *
+     * @param balance The player's balance before the round.
+     * @param lastBet The previous round's bet, or 0 at the start of a session.
+     * @param lastResult The previous round's result code, or {@link BlackjackEngine#IN_PROGRESS} at the
+     *                   start of a session.
+     * @param shoe The composition of the cards left in the shoe.
+     * @return The bet the strategy wants to place.
+     */
+    int nextBet(int balance, int lastBet, int lastResult, ShoeComposition shoe);
+
+    /**
+     * A strategy that bets the same amount every round.
+     *
+     * @param bet The bet.
+     * @return The strategy.
+     */
+    static BettingStrategy flat(int bet) {
+        return (balance, lastBet, lastResult, shoe) -> bet;
+    }
+
+    /**
+     * A Martingale strategy: double the bet after each loss, return to the base bet after a win, and
+     * repeat the bet after a tie.
+     *
+     * @param baseBet The bet at the start of a session and after each win.
+     * @return The strategy.
+     */
+    static BettingStrategy martingale(int baseBet) {
+        return (balance, lastBet, lastResult, shoe) -> {
+            if (lastResult == BlackjackEngine.DEALER_WINS) {
+                return (int) Math.min(Integer.MAX_VALUE, 2L * lastBet);
+            } else if (lastResult == BlackjackEngine.TIE) {
+                return lastBet;
+            }
+            return baseBet;
+        };
+    }
+
+    /**
+     * A strategy that bets a fixed fraction of the current balance.
+     *
+     * @param fraction The fraction of the balance to bet, above 0 and at most 1.
+     * @return The strategy.
+     */
+    static BettingStrategy proportional(double fraction) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction must be above 0 and at most 1: " + fraction);
+        }
+        return (balance, lastBet, lastResult, shoe) -> (int) (balance * fraction);
+    }
+
+    /**
+     * A strategy that spreads its bet with the Hi-Lo true count: one unit at a true count of 1 or
+     * less, and one more unit for each point above that, up to a maximum spread.
+     *
+     * @param unit The bet of one unit.
+     * @param maxUnits The most units ever bet.
+     * @return The strategy.
+     */
+    static BettingStrategy countBased(int unit, int maxUnits) {
+        return (balance, lastBet, lastResult, shoe) -> {
+            int units = (int) Math.floor(shoe.getTrueCount());
+            return unit * Math.max(1, Math.min(maxUnits, units));
+        };
+    }
+
+    /**
+     * Parses a betting strategy: {@code flat=10}, {@code martingale=5}, {@code proportional=0.02} or
+     * {@code count=10:8} (unit and maximum units).
+     *
+     * @param spec The strategy description.
+     * @return The strategy.
+     * @throws IllegalArgumentException If the description is not understood.
+     */
+    static BettingStrategy parse(String spec) {
+        int equals = spec.indexOf('=');
+        String name = equals < 0 ? spec : spec.substring(0, equals);
+        String value = equals < 0 ? "" : spec.substring(equals + 1);
+        try {
+            switch (name) {
+                case "flat":
+                    return flat(Integer.parseInt(value));
+                case "martingale":
+                    return martingale(Integer.parseInt(value));
+                case "proportional":
+                    return proportional(Double.parseDouble(value));
+                case "count":
+                    int colon = value.indexOf(':');
+                    return countBased(Integer.parseInt(value.substring(0, colon)), Integer.parseInt(value.substring(colon + 1)));
+                default:
+                    throw new IllegalArgumentException("Unknown betting strategy: " + spec);
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Bad betting strategy: " + spec, e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * The BlackjackEngine class implements the rules of a single Blackjack round with no user interface.
+ * It deals from a {@link Shoe} into both hands, and reports the outcome of every action as a result
+ * code so that the same rules can drive the Swing game, simulations and bots. The dealer's drawing
+ * and the round's outcome are read from the tables of the engine's {@link RuleSet}.
+ */
+public class BlackjackEngine {
+    /** Result code for a round that is still being played. */
+    public static final int IN_PROGRESS = -1;
+    /** Result code for a round won by the dealer. */
+    public static final int DEALER_WINS = 0;
+    /** Result code for a round won by the player. */
+    public static final int PLAYER_WINS = 1;
+    /** Result code for a tied round. */
+    public static final int TIE = 2;
+
+    /** The dealer keeps drawing until the hand is worth at least this much. */
+    public static final int DEALER_STANDS_ON = 17;
+
+    private final Shoe shoe;
+    private final RuleSet rules;
+    private final Hand playerHand;
+    private final Hand dealerHand;
+    private boolean dealerPlayed;
+
+    /**
+     * Constructs a new engine with a freshly shuffled single-deck shoe.
+     */
+    public BlackjackEngine() {
+        this(new Shoe());
+    }
+
+    /**
+     * Constructs a new engine that deals from the given shoe.
+     *
+     * @param shoe The shoe to deal from.
+     */
+    public BlackjackEngine(Shoe shoe) {
+        this(shoe, RuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructs a new engine that deals from the given shoe and plays by the given rules.
+     *
+     * @param shoe The shoe to deal from.
+     * @param rules The rules of the game.
+     */
+    public BlackjackEngine(Shoe shoe, RuleSet rules) {
+        this.shoe = shoe;
+        this.rules = rules;
+
+        playerHand = rules.newHand();
+        dealerHand = rules.newHand();
+        dealerPlayed = false;
+    }
+
+    /**
+     * Deals two cards each to the player and the dealer, in casino order.
+     *
+     * @return The result code after the deal; blackjacks end the round immediately.
+     */
+    public int deal() {
+        playerHand.add(shoe.deal());
+        dealerHand.add(shoe.deal());
+        playerHand.add(shoe.deal());
+        dealerHand.add(shoe.deal());
+
+        return checkGameOver();
+    }
+
+    /**
+     * Deals an additional card to the player.
+     *
+     * @return The result code after the card is dealt.
+     */
+    public int hit() {
+        playerHand.add(shoe.deal());
+
+        return checkGameOver();
+    }
+
+    /**
+     * Ends the player's turn and lets the dealer draw until reaching {@link #DEALER_STANDS_ON} or more,
+     * or past a soft 17 when the rules say so.
+     *
+     * @return The result code of the finished round.
+     */
+    public int stand() {
+        while (rules.dealerDraws(dealerHand)) {
+            dealerHand.add(shoe.deal());
+        }
+
+        dealerPlayed = true;
+        return checkGameOver();
+    }
+
+    /**
+     * Plays a whole round headless, dealing and then hitting or standing as the strategy decides.
+     * The hands are left in place so the caller can inspect them before calling {@link #resetRound()}.
+     *
+     * @param strategy The strategy making the player's decisions.
+     * @return The result code of the finished round.
+     */
+    public int playRound(PlayerStrategy strategy) {
+        int result = deal();
+        int dealerUpcard = dealerHand.card(0);
+
+        while (result == IN_PROGRESS) {
+            result = strategy.shouldHit(playerHand, dealerUpcard) ? hit() : stand();
+        }
+        return result;
+    }
+
+    /**
+     * Determines if the round is over and returns the outcome.
+     *
+     * @return {@link #IN_PROGRESS}, {@link #DEALER_WINS}, {@link #PLAYER_WINS} or {@link #TIE}.
+     */
+    public int checkGameOver() {
+        return rules.outcome(playerHand, dealerHand, dealerPlayed);
+    }
+
+    /**
+     * Clears both hands for a new round, re-shuffling the shoe once the cut card has come out.
+     */
+    public void resetRound() {
+        shoe.shuffleIfNeeded();
+
+        playerHand.clear();
+        dealerHand.clear();
+        dealerPlayed = false;
+    }
+
+    /**
+     * Retrieves the shoe the engine deals from.
+     *
+     * @return The shoe.
+     */
+    public Shoe getShoe() {
+        return shoe;
+    }
+
+    /**
+     * Retrieves the rules the engine plays by.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Retrieves the player's hand. The hand is owned by the engine and changes as the round is played.
+     *
+     * @return The player's hand.
+     */
+    public Hand getPlayerHand() {
+        return playerHand;
+    }
+
+    /**
+     * Retrieves the dealer's hand. The hand is owned by the engine and changes as the round is played.
+     *
+     * @return The dealer's hand.
+     */
+    public Hand getDealerHand() {
+        return dealerHand;
+    }
+
+    /**
+     * Checks whether the dealer has played out their hand this round.
+     *
+     * @return True once the player has stood.
+     */
+    public boolean isDealerPlayed() {
+        return dealerPlayed;
+    }
+}
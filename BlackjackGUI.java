@@ -1,15 +1,60 @@
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The BlackjackGUI class serves as the graphical user interface for the Blackjack game.
  * It manages user interactions and displays the game state visually, including player and dealer hands,
- * betting actions, and game results. This class interfaces directly with the BlackjackGame class
- * to enact game logic based on user inputs.
+ * betting actions, and game results. This class drives the BlackjackGame class based on user inputs
+ * and listens to it as a {@link BlackjackListener} to show the cards and outcomes it reports.
+ *
+ * <p>Rounds are played on a dedicated engine thread, never on the event thread. The listener
+ * callbacks arrive on the engine thread and queue their UI changes, which are applied in one batch
+ * per event-thread pass. Both hands are drawn by a single {@link TableCanvas}, so dealing a card
+ * repaints only that card's region and never builds components or lays them out. Outcomes are shown in a
+ * non-modal banner that fades on a timer, so the next bet can be placed immediately.
+ *
+ * <p>The welcome background and every card image are decoded in parallel in the background while
+ * the welcome screen is already up, so the window appears at once and the first deal never waits
+ * on the disk.
  */
-public class BlackjackGUI extends JFrame {
+public class BlackjackGUI extends JFrame implements BlackjackListener {
+    // Size the card images are drawn at
+    private static final int CARD_WIDTH = 100;
+    private static final int CARD_HEIGHT = CARD_WIDTH * 726 / 500;
+    // Number of players shown on the leaderboard
+    private static final int LEADERBOARD_SIZE = 5;
+    // How long an outcome banner stays up, in milliseconds
+    private static final int BANNER_MILLIS = 2000;
+    // Image shown on the welcome screen and the size it is drawn at
+    private static final String WELCOME_BACKGROUND = "src/Images/MrYeeCasinoBackground.jpeg";
+    private static final int WELCOME_IMAGE_SIZE = 800;
+
+    // Assets decoded in the background at startup, shared by every window
+    private static CompletableFuture<BufferedImage> welcomeBackground;
+    private static CompletableFuture<Void> cardImages;
+    private static final CompletableFuture<Void> interactive = new CompletableFuture<>();
+
+    // The single thread every round is played on, shared by all windows
+    private static final ExecutorService ENGINE = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "blackjack-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // GUI components
     public JTextField betField;
     public JButton betButton;
@@ -20,16 +65,31 @@ public class BlackjackGUI extends JFrame {
     private JButton hitButton;
     private JButton standButton;
     private JButton instructionsButton;
+    private JButton hintButton;
     private JButton cashOutButton;
-    private JPanel playerPanel;
-    private JPanel dealerPanel;
+    private TableCanvas table;
+    private JLabel dealerOddsLabel;
+    private JLabel hintLabel;
+    private JLabel outcomeBanner;
+    private Timer bannerTimer;
 
     // Game variables
     private int highScore = 0;
     private int betAmount = 0;
-    private int balance = 1000; // Initial balance
+    private int balance = BlackjackGame.STARTING_BALANCE; // Initial balance
     private boolean betPlaced = false;
+    private boolean actionInFlight = false;
+    private int roundNumber = 0;
     private BlackjackGame blackjackGame;
+    private final CardImageCache cardImageCache = CardImageCache.getShared();
+    private final PaintLatencyMonitor paintLatency = PaintLatencyMonitor.install();
+
+    // UI changes queued by the engine thread, applied together on the event thread
+    private final ConcurrentLinkedQueue<Runnable> uiUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean uiDrainScheduled = new AtomicBoolean();
+
+    // Whether the engine thread has a round in progress; only touched on the engine thread
+    private boolean engineRoundActive = false;
 
     /**
      * Constructs a new Blackjack GUI window with controls for playing the game.
@@ -66,6 +126,9 @@ public class BlackjackGUI extends JFrame {
         // Initialize and set up the bottom panel (action buttons)
         setupBottomPanel();
 
+        // Initialize the outcome banner shown over the table
+        setupOutcomeBanner();
+
         // Set up button listeners for interactions
         setupButtonListeners();
 
@@ -76,6 +139,55 @@ public class BlackjackGUI extends JFrame {
         showWelcomeScreen();
     }
 
+    /**
+     * Starts decoding the welcome background and every card image in the background, unless already started.
+     *
+     * @return A future completed once every asset is decoded.
+     */
+    public static synchronized CompletableFuture<Void> preloadAssets() {
+        if (welcomeBackground == null) {
+            welcomeBackground = CompletableFuture.supplyAsync(BlackjackGUI::loadWelcomeBackground);
+            welcomeBackground.thenRun(() -> StartupTimer.get().mark(StartupTimer.BACKGROUND_LOADED));
+            cardImages = CardImageCache.getShared().preload(CARD_WIDTH);
+            cardImages.thenRun(() -> StartupTimer.get().mark(StartupTimer.CARDS_LOADED));
+        }
+        return CompletableFuture.allOf(welcomeBackground, cardImages);
+    }
+
+    /**
+     * Retrieves a future completed once the first welcome screen is on screen and accepts input.
+     *
+     * @return The future.
+     */
+    public static CompletableFuture<Void> whenInteractive() {
+        return interactive;
+    }
+
+    /**
+     * Decodes the welcome background and smoothly scales it to the size it is drawn at.
+     *
+     * @return The scaled image, or null if the file cannot be read.
+     */
+    private static BufferedImage loadWelcomeBackground() {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new File(WELCOME_BACKGROUND));
+        } catch (IOException e) {
+            source = null;
+        }
+        if (source == null) {
+            System.err.println("Failed to load welcome background: " + WELCOME_BACKGROUND);
+            return null;
+        }
+
+        Image scaled = source.getScaledInstance(WELCOME_IMAGE_SIZE, WELCOME_IMAGE_SIZE, Image.SCALE_SMOOTH);
+        BufferedImage image = new BufferedImage(WELCOME_IMAGE_SIZE, WELCOME_IMAGE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(scaled, 0, 0, null);
+        graphics.dispose();
+        return image;
+    }
+
     /**
      * Displays the welcome screen when the game first launches.
      */
@@ -88,12 +200,16 @@ public class BlackjackGUI extends JFrame {
         // Create a panel for the welcome screen
         JPanel welcomePanel = new JPanel(new BorderLayout());
 
-        // Load and scale the image to fit the screen size
-        ImageIcon imageIcon = new ImageIcon("src/Images/MrYeeCasinoBackground.jpeg");
-        Image image = imageIcon.getImage();
-        Image scaledImage = image.getScaledInstance(800, 800, Image.SCALE_SMOOTH);
-        JLabel imageLabel = new JLabel(new ImageIcon(scaledImage));
+        // Show the background as soon as it has been decoded, without holding up the dialog
+        JLabel imageLabel = new JLabel();
+        welcomePanel.setBackground(Color.BLACK);
         welcomePanel.add(imageLabel, BorderLayout.CENTER);
+        preloadAssets();
+        welcomeBackground.thenAccept(image -> {
+            if (image != null) {
+                SwingUtilities.invokeLater(() -> imageLabel.setIcon(new ImageIcon(image)));
+            }
+        });
 
         // Add a "Let's Play" button to the welcome screen
         JButton letsPlayButton = new JButton("Let's Play!");
@@ -113,6 +229,15 @@ public class BlackjackGUI extends JFrame {
             }
         });
 
+        // The game is interactive once the welcome screen can be clicked
+        welcomeDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                StartupTimer.get().mark(StartupTimer.INTERACTIVE);
+                interactive.complete(null);
+            }
+        });
+
         // Initially hide the main game interface
         setVisible(false);
 
@@ -146,13 +271,18 @@ public class BlackjackGUI extends JFrame {
      * Initializes and configures the center panel which contains player and dealer hands.
      */
     private void setupCenterPanel() {
-        JPanel centerPanel = new JPanel(new GridLayout(2, 1)); // Grid layout with 2 rows and 1 column
-        dealerPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        playerPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JPanel centerPanel = new JPanel(new BorderLayout());
+
+        // One canvas draws the dealer's cards at the top and the player's cards at the bottom
+        table = new TableCanvas(CARD_WIDTH, CARD_HEIGHT);
+        table.setBackground(centerPanel.getBackground());
+        centerPanel.add(table, BorderLayout.CENTER);
 
-        // Add dealer and player panels to the center panel
-        centerPanel.add(dealerPanel); // Dealer's cards at the top
-        centerPanel.add(playerPanel); // Player's cards at the bottom
+        // Show the live dealer odds beside the dealer's cards
+        dealerOddsLabel = new JLabel();
+        dealerOddsLabel.setPreferredSize(new Dimension(150, 0));
+        dealerOddsLabel.setVerticalAlignment(SwingConstants.TOP);
+        centerPanel.add(dealerOddsLabel, BorderLayout.EAST);
 
         // Add the center panel to the background label
         backgroundLabel.add(centerPanel, BorderLayout.CENTER);
@@ -168,24 +298,61 @@ public class BlackjackGUI extends JFrame {
         hitButton = new JButton("Hit");
         standButton = new JButton("Stand");
         instructionsButton = new JButton("Instructions");
+        hintButton = new JButton("Hint");
         cashOutButton = new JButton("Cash Out");
+        hintLabel = new JLabel();
 
         Dimension buttonSize = new Dimension(150, 50);
         hitButton.setPreferredSize(buttonSize);
         standButton.setPreferredSize(buttonSize);
         instructionsButton.setPreferredSize(buttonSize);
+        hintButton.setPreferredSize(new Dimension(80, 50));
         cashOutButton.setPreferredSize(buttonSize);
 
         // Add buttons to the bottom panel
         bottomPanel.add(instructionsButton);
         bottomPanel.add(hitButton);
         bottomPanel.add(standButton);
+        bottomPanel.add(hintButton);
         bottomPanel.add(cashOutButton);
+        bottomPanel.add(hintLabel);
 
         // Add the bottom panel to the background label
         backgroundLabel.add(bottomPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Initializes the non-modal banner that announces each round's outcome over the table. It sits
+     * on the glass pane, which has no mouse listeners, so clicks still reach the controls beneath it.
+     */
+    private void setupOutcomeBanner() {
+        outcomeBanner = new JLabel();
+        outcomeBanner.setFont(outcomeBanner.getFont().deriveFont(Font.BOLD, 28f));
+        outcomeBanner.setForeground(Color.WHITE);
+        outcomeBanner.setBackground(new Color(0, 0, 0, 170));
+        outcomeBanner.setOpaque(true);
+        outcomeBanner.setBorder(BorderFactory.createEmptyBorder(12, 24, 12, 24));
+
+        JPanel glassPane = new JPanel(new GridBagLayout());
+        glassPane.setOpaque(false);
+        glassPane.add(outcomeBanner);
+        setGlassPane(glassPane);
+
+        bannerTimer = new Timer(BANNER_MILLIS, e -> getGlassPane().setVisible(false));
+        bannerTimer.setRepeats(false);
+    }
+
+    /**
+     * Shows the outcome banner and restarts the timer that hides it.
+     *
+     * @param message The outcome message.
+     */
+    private void showOutcome(String message) {
+        outcomeBanner.setText(message);
+        getGlassPane().setVisible(true);
+        bannerTimer.restart();
+    }
+
     /**
      * Sets up button listeners for various actions in the game.
      */
@@ -219,6 +386,13 @@ public class BlackjackGUI extends JFrame {
             }
         });
 
+        hintButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                handleHintAction();
+            }
+        });
+
         // Instructions button listener
         instructionsButton.addActionListener(new ActionListener() {
             @Override
@@ -240,17 +414,30 @@ public class BlackjackGUI extends JFrame {
      * Handles the action for placing a bet based on the bet amount entered.
      */
     public void placeBet() {
+        if (actionInFlight || betPlaced) {
+            return;
+        }
         try {
             betAmount = Integer.parseInt(betField.getText());
             if (betAmount < 1 || betAmount > balance) {
                 throw new NumberFormatException();
             }
 
-            // Update UI and start the game
+            // Update UI and start the game on the engine thread
             betField.setEditable(false);
             betButton.setEnabled(false);
             betPlaced = true;
-            blackjackGame.startGame(this, balance, betAmount);
+            resetHandViews();
+            getGlassPane().setVisible(false);
+
+            int round = ++roundNumber;
+            int startingBalance = balance;
+            int bet = betAmount;
+            runOnEngine(() -> {
+                engineRoundActive = true;
+                blackjackGame.startGame(this, startingBalance, bet);
+                refreshDealerOdds(round);
+            });
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(null, "Invalid bet amount!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -261,24 +448,139 @@ public class BlackjackGUI extends JFrame {
      * Handles the "Hit" action.
      */
     private void handleHitAction() {
+        if (actionInFlight) {
+            return;
+        }
         if (betPlaced) {
-            blackjackGame.hit();
+            int round = roundNumber;
+            runOnEngine(() -> {
+                if (engineRoundActive) {
+                    blackjackGame.hit();
+                    refreshDealerOdds(round);
+                }
+            });
         } else {
             JOptionPane.showMessageDialog(null, "Please place a bet first.");
         }
     }
 
+    /**
+     * Runs a game action on the engine thread. Further actions are ignored until the action's UI
+     * changes have been applied, and the time until they are painted is recorded. The action's last
+     * queued change ends the measurement, so a drain that applies only part of its result does not.
+     *
+     * @param action The action, which may only touch the game and queue UI changes.
+     */
+    private void runOnEngine(Runnable action) {
+        actionInFlight = true;
+        paintLatency.inputReceived();
+        ENGINE.execute(() -> {
+            try {
+                action.run();
+            } finally {
+                updateUi(() -> {
+                    actionInFlight = false;
+                    paintLatency.updatesApplied();
+                });
+            }
+        });
+    }
+
+    /**
+     * Queues a UI change from any thread. The first change queued schedules one pass on the event
+     * thread that applies everything queued by then.
+     *
+     * @param update The UI change.
+     */
+    private void updateUi(Runnable update) {
+        uiUpdates.add(update);
+        if (uiDrainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drainUiUpdates);
+        }
+    }
+
+    /**
+     * Applies every queued UI change. The table repaints only the cards that changed, so no layout
+     * pass is needed.
+     */
+    private void drainUiUpdates() {
+        uiDrainScheduled.set(false);
+        Runnable update;
+        while ((update = uiUpdates.poll()) != null) {
+            update.run();
+        }
+    }
+
+    /**
+     * Requests the dealer odds for the round in progress and shows them once they are computed,
+     * unless the round has ended by then. Runs on the engine thread.
+     *
+     * @param round The round the odds are for.
+     */
+    private void refreshDealerOdds(int round) {
+        if (!engineRoundActive) {
+            return;
+        }
+
+        blackjackGame.getDealerOddsAsync().thenAccept(odds -> updateUi(() -> {
+            if (betPlaced && round == roundNumber) {
+                showDealerOdds(odds);
+            }
+        }));
+    }
+
+    /**
+     * Displays the probability of each dealer outcome next to the dealer's cards.
+     *
+     * @param odds The probability of each {@link DealerOddsCalculator} outcome index.
+     */
+    private void showDealerOdds(double[] odds) {
+        StringBuilder text = new StringBuilder("<html>Dealer odds:");
+        for (int i = DealerOddsCalculator.OUTCOME_17; i <= DealerOddsCalculator.OUTCOME_21; i++) {
+            text.append(String.format("<br>%d: %.1f%%", 17 + i, 100 * odds[i]));
+        }
+        text.append(String.format("<br>5-Card: %.1f%%", 100 * odds[DealerOddsCalculator.OUTCOME_CHARLIE]));
+        text.append(String.format("<br>Bust: %.1f%%</html>", 100 * odds[DealerOddsCalculator.OUTCOME_BUST]));
+        dealerOddsLabel.setText(text.toString());
+    }
+
     /**
      * Handles the "Stand" action.
      */
     private void handleStandAction() {
+        if (actionInFlight) {
+            return;
+        }
         if (betPlaced) {
-            blackjackGame.stand();
+            runOnEngine(() -> {
+                if (engineRoundActive) {
+                    blackjackGame.stand();
+                }
+            });
         } else {
             JOptionPane.showMessageDialog(null, "You cannot stand without placing a bet and starting the game.");
         }
     }
 
+    /**
+     * Handles the "Hint" action by showing the play with the higher expected value.
+     */
+    private void handleHintAction() {
+        if (actionInFlight) {
+            return;
+        }
+        if (betPlaced) {
+            runOnEngine(() -> {
+                if (engineRoundActive) {
+                    String hint = blackjackGame.shouldHit() ? "Hint: Hit" : "Hint: Stand";
+                    updateUi(() -> hintLabel.setText(hint));
+                }
+            });
+        } else {
+            JOptionPane.showMessageDialog(null, "Please place a bet first.");
+        }
+    }
+
     /**
      * Displays the instruction screen for the game.
      */
@@ -295,39 +597,76 @@ public class BlackjackGUI extends JFrame {
      * Handles the "Cash Out" action.
      */
     private void handleCashOutAction() {
-        if (!betPlaced) {
+        if (!betPlaced && !actionInFlight) {
             resetGame();
         } else {
             JOptionPane.showMessageDialog(null, "You cannot cash out in the middle of a hand.");
         }
     }
 
-    /**
-     * Adds an image of a card to the player's hand.
-     *
-     * @param cardImageFile The file path to the card image.
-     */
-    public void addPlayerCardImage(String cardImageFile) {
-        ImageIcon cardImage = new ImageIcon(cardImageFile);
-        Image image = cardImage.getImage();
-        Image resizedImage = image.getScaledInstance(100, -1, Image.SCALE_SMOOTH);
-        playerPanel.add(new JLabel(new ImageIcon(resizedImage)));
-        playerPanel.revalidate();
-        playerPanel.repaint();
+    // The listener callbacks below run on the engine thread. Card images are looked up there, so a
+    // cache miss never decodes on the event thread, and hands are copied before the round is reset.
+
+    @Override
+    public void playerCardDealt(int card) {
+        BufferedImage image = cardImageCache.get(card, CARD_WIDTH);
+        updateUi(() -> table.addPlayerCard(image));
     }
 
-    /**
-     * Adds an image of a card to the dealer's hand.
-     *
-     * @param cardImageFile The file path to the card image.
-     */
-    public void addDealerCardImage(String cardImageFile) {
-        ImageIcon cardImage = new ImageIcon(cardImageFile);
-        Image image = cardImage.getImage();
-        Image resizedImage = image.getScaledInstance(100, -1, Image.SCALE_SMOOTH);
-        dealerPanel.add(new JLabel(new ImageIcon(resizedImage)));
-        dealerPanel.revalidate();
-        dealerPanel.repaint();
+    @Override
+    public void dealerCardDealt(int card) {
+        BufferedImage image = cardImageCache.get(card, CARD_WIDTH);
+        updateUi(() -> table.addDealerCard(image));
+    }
+
+    @Override
+    public void dealerRevealed(Hand dealerHand) {
+        BufferedImage[] images = new BufferedImage[dealerHand.size()];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = cardImageCache.get(dealerHand.card(i), CARD_WIDTH);
+        }
+        updateUi(() -> table.setDealerCards(images));
+    }
+
+    @Override
+    public void balanceChanged(int newBalance) {
+        updateUi(() -> updateBalance(newBalance));
+    }
+
+    @Override
+    public void roundWon(int amount) {
+        updateUi(() -> showOutcome("You won $" + amount + "!"));
+    }
+
+    @Override
+    public void roundTied() {
+        updateUi(() -> showOutcome("You tied this hand."));
+    }
+
+    @Override
+    public void roundLost(int amount) {
+        updateUi(() -> showOutcome("You lost $" + amount + "!"));
+    }
+
+    @Override
+    public void bankrupt() {
+        engineRoundActive = false;
+        updateUi(this::resetGame);
+    }
+
+    @Override
+    public void roundReset() {
+        engineRoundActive = false;
+
+        // The final hands stay on the table until the next bet is placed
+        updateUi(() -> {
+            betField.setEditable(true);
+            betButton.setEnabled(true);
+            dealerOddsLabel.setText("");
+            hintLabel.setText("");
+            betPlaced = false;
+            betField.requestFocusInWindow();
+        });
     }
 
     /**
@@ -353,60 +692,75 @@ public class BlackjackGUI extends JFrame {
      * Resets the player and dealer hand views.
      */
     public void resetHandViews() {
-        playerPanel.removeAll();
-        dealerPanel.removeAll();
-        playerPanel.revalidate();
-        playerPanel.repaint();
-        dealerPanel.revalidate();
-        dealerPanel.repaint();
-        betPlaced = false;
+        dealerOddsLabel.setText("");
+        hintLabel.setText("");
+        table.clear();
     }
 
     /**
-     * Resets the game by closing the current window and starting a new game.
+     * Ends the session and starts a new one in the same window. The frame, engine, shoe and decoded
+     * card images are all kept; only the bankroll and the round state return to their starting values.
      */
     public void resetGame() {
         finalGameStats();
-        dispose(); // Close the current window
-        BlackjackGUI newGame = new BlackjackGUI(new BlackjackGame());
-        newGame.setVisible(true);
+
+        // The engine thread owns the game, and runs this before any later bet
+        ENGINE.execute(blackjackGame::newSession);
+
+        roundNumber++;
+        betPlaced = false;
+        highScore = blackjackGame.getHighScore();
+        highScoreLabel.setText("High Score: $" + highScore);
+        updateBalance(BlackjackGame.STARTING_BALANCE);
+        resetHandViews();
+        getGlassPane().setVisible(false);
+        betField.setText("");
+        betField.setEditable(true);
+        betButton.setEnabled(true);
+        betField.requestFocusInWindow();
     }
 
     /**
-     * Displays the final game statistics including total score, high score, hands won, and highest bank.
+     * Displays the final game statistics including total score, high score, hands won, highest bank
+     * and the leaderboard.
      */
     private void finalGameStats() {
-        // Calculate the total score and high score
-        blackjackGame.checkAndUpdateHighScore(balance - 1000);
+        // Record the session and calculate the total score
+        boolean newHighScore = blackjackGame.recordSession(balance - 1000);
         int currentScore = (balance < 1000) ? 0 : balance - 1000;
 
         // Determine the dialog title based on score
-        String title = (currentScore > blackjackGame.getHighScore()) ? "High Score!" : "Low Score!";
+        String title = newHighScore ? "High Score!" : "Low Score!";
 
         // Create the dialog output message
-        String output = String.format(
+        StringBuilder output = new StringBuilder(String.format(
                 "Total Score: %d\nHighest Score: %d\nHands Won: %d\nHighest Bank: %d",
                 currentScore,
                 blackjackGame.getHighScore(),
                 blackjackGame.getHandsWon(),
                 blackjackGame.getHighestBank()
-        );
+        ));
+
+        // Append the leaderboard, served from memory
+        List<PlayerStats> leaders = blackjackGame.getLeaderboard(LEADERBOARD_SIZE);
+        if (!leaders.isEmpty()) {
+            output.append("\n\nLeaderboard:");
+            for (int i = 0; i < leaders.size(); i++) {
+                PlayerStats leader = leaders.get(i);
+                output.append(String.format("\n%d. %s  $%d", i + 1, leader.getPlayer(), leader.getHighScore()));
+            }
+        }
 
         // Display the final game statistics
-        JOptionPane.showMessageDialog(null, output, title, JOptionPane.INFORMATION_MESSAGE);
+        JOptionPane.showMessageDialog(null, output.toString(), title, JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
-     * Flips the dealer's hand by displaying the dealer's card images.
+     * Retrieves the recorded input-to-paint latencies of the game actions.
+     *
+     * @return The latency histogram.
      */
-    public void flipDealer() {
-        dealerPanel.removeAll();
-
-        for (String card : blackjackGame.getDealerHand()) {
-            addDealerCardImage(card);
-        }
-
-        dealerPanel.revalidate();
-        playerPanel.repaint();
+    public LatencyHistogram getPaintLatency() {
+        return paintLatency.getHistogram();
     }
 }
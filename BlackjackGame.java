@@ -1,378 +1,361 @@
-import java.io.*;
-import java.util.*;
-import javax.swing.JOptionPane;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * The BlackjackGame class manages the game logic and state of a Blackjack game session.
- * It coordinates between the game UI and the underlying game mechanics such as card dealing,
- * shuffling, and scoring.
+ * The BlackjackGame class manages the state of a Blackjack game session such as the balance,
+ * hands won and high score. It drives a {@link BlackjackEngine} for the round rules and reports
+ * every dealt card and outcome to a {@link BlackjackListener}, so it needs no user interface.
+ * Finished sessions are recorded for the player in a {@link StatsStore}, and every action and outcome
+ * can be captured in a {@link SessionRecording} for exact replay.
  */
 public class BlackjackGame {
-    private static final String HIGH_SCORE_FILE_PATH = "high_score.txt";
+    /** The balance every new session starts with. */
+    public static final int STARTING_BALANCE = 1000;
 
     // Game variables
     private int highScore;
     private int highestBank;
     private int handsWon;
 
-    // Image paths
-    private static final String CARD_BACK_IMAGE = "src/Images/PNG-cards-1.3/back_of_card.png";
-
-    // GUI and game components
-    private BlackjackGUI blackjackGUI;
-    private Map<String, String> cardImageMap;
-    private Map<String, Integer> cardValueMap;
-    private Stack<String> cardStack;
-    private List<String> deck;
-    private List<String> playerHand;
-    private List<String> dealerHand;
-    private boolean dealerPlayed;
+    // Listener and game components
+    private BlackjackListener listener;
+    private final BlackjackEngine engine;
+    private final StatsStore statsStore;
+    private final String playerName;
+    private SessionRecording recording;
+    private DealerOddsCalculator dealerOddsCalculator;
+    private StrategyTable strategyTable;
     private int playerBalance;
     private int playerBet;
 
+    // Runtime measurements of the game actions
+    private final EngineMetrics metrics = EngineMetrics.get();
+    private boolean allocationMeasured;
+
     /**
      * Constructs a new BlackjackGame instance, initializing all necessary game components
-     * and loading the high score from a file.
+     * and loading the current player's high score from the shared stats store.
      */
     public BlackjackGame() {
-        highestBank = 1000;
-        playerBalance = 0;
-        playerBet = 0;
-
-        cardImageMap = new HashMap<>();
-        cardValueMap = new HashMap<>();
-        deck = new ArrayList<>();
-        cardStack = new Stack<>();
-        playerHand = new ArrayList<>();
-        dealerHand = new ArrayList<>();
-        dealerPlayed = false;
-
-        initializeDeck();
-        shuffleDeck();
-
-        loadHighScore();
-    }
-
-    /**
-     * Initializes the deck with 52 cards, mapping each card to its corresponding image file and value.
-     */
-    private void initializeDeck() {
-        String[] suits = {"Clubs", "Diamonds", "Hearts", "Spades"};
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "Jack", "Queen", "King", "Ace"};
-
-        int value;
-        for (String suit : suits) {
-            for (int i = 0; i < ranks.length; i++) {
-                String rank = ranks[i];
-                String cardName = rank + " of " + suit;
-                String imagePath = "src/Images/PNG-cards-1.3/" + rank.toLowerCase() + "_of_" + suit.toLowerCase() + ".png";
-
-                // Calculate card value
-                if (rank.equals("Ace")) {
-                    value = 11;
-                } else if (i >= 8) {
-                    value = 10;
-                } else {
-                    value = i + 2;
-                }
-
-                // Add card information to the maps and deck
-                deck.add(cardName);
-                cardImageMap.put(cardName, imagePath);
-                cardValueMap.put(cardName, value);
-            }
-        }
+        this(new BlackjackEngine(), StatsStore.getShared(), StatsStore.currentPlayer());
+        recording = new SessionRecording(engine.getShoe(), STARTING_BALANCE);
     }
 
     /**
-     * Shuffles the deck and refills the card stack with the shuffled cards.
+     * Constructs a new BlackjackGame instance around an existing engine without recording any stats.
+     * This is the entry point for headless play.
+     *
+     * @param engine The engine that enforces the round rules.
      */
-    private void shuffleDeck() {
-        List<String> tempDeck = new ArrayList<>(deck);
-        Random random = new Random();
-        cardStack = new Stack<>();
-
-        while (!tempDeck.isEmpty()) {
-            int index = random.nextInt(tempDeck.size());
-            cardStack.add(tempDeck.get(index));
-            tempDeck.remove(index);
-        }
+    public BlackjackGame(BlackjackEngine engine) {
+        this(engine, null, null);
     }
 
     /**
-     * Counts the total value of the cards in the specified hand, accounting for the best use of aces.
+     * Constructs a new BlackjackGame instance that records its session for the given player.
      *
-     * @param hand The hand whose total value is to be computed.
-     * @return The computed value of the hand.
+     * @param engine The engine that enforces the round rules.
+     * @param statsStore The store the session is recorded in, or null to record nothing.
+     * @param playerName The player the session belongs to.
      */
-    private int countHandValue(List<String> hand) {
-        int value = 0;
-        int aceCount = 0;
-
-        // Calculate the total value and count aces
-        for (String card : hand) {
-            int cardValue = cardValueMap.get(card);
-
-            if (cardValue == 11) {
-                aceCount++;
-            } else {
-                value += cardValue;
-            }
-        }
-
-        // Adjust for aces
-        while (aceCount > 0) {
-            if (value + 11 <= 21) {
-                value += 11;
-            } else {
-                value += 1;
-            }
-            aceCount--;
-        }
-
-        // Check for Five-Card Charlie
-        if (hand.size() == 5 && value < 21) {
-            value = 21;
-        }
-
-        return value;
+    public BlackjackGame(BlackjackEngine engine, StatsStore statsStore, String playerName) {
+        this.engine = engine;
+        this.statsStore = statsStore;
+        this.playerName = playerName;
+        this.listener = BlackjackListener.NONE;
+        highScore = statsStore != null ? statsStore.getStats(playerName).getHighScore() : 0;
+        highestBank = STARTING_BALANCE;
+        playerBalance = 0;
+        playerBet = 0;
     }
 
     /**
      * Starts a new game round with the given bet and balance. It also deals two cards each to the player and the dealer.
      *
-     * @param blackjackGUI The GUI instance to interact with.
+     * @param listener The listener notified of the round's events.
      * @param balance The starting balance of the player.
      * @param bet The bet amount for the round.
      */
-    public void startGame(BlackjackGUI blackjackGUI, int balance, int bet) {
-        this.blackjackGUI = blackjackGUI;
+    public void startGame(BlackjackListener listener, int balance, int bet) {
+        long startNanos = System.nanoTime();
+        long startAllocated = metrics.allocatedBytes();
+        allocationMeasured = startAllocated >= 0;
+        this.listener = listener;
         this.playerBalance = balance;
         this.playerBet = bet;
+        if (recording != null) {
+            recording.recordBet(bet);
+        }
 
         // Deal initial cards
-        playerHand.add(cardStack.pop());
-        dealerHand.add(cardStack.pop());
-        playerHand.add(cardStack.pop());
-        dealerHand.add(cardStack.pop());
+        int result = engine.deal();
 
         // Display player's cards and dealer's visible card
-        blackjackGUI.addPlayerCardImage(getPlayerHand().get(0));
-        blackjackGUI.addPlayerCardImage(getPlayerHand().get(1));
-        blackjackGUI.addDealerCardImage(getDealerHand().get(0));
-        blackjackGUI.addDealerCardImage(CARD_BACK_IMAGE);
+        listener.playerCardDealt(engine.getPlayerHand().card(0));
+        listener.playerCardDealt(engine.getPlayerHand().card(1));
+        listener.dealerCardDealt(engine.getDealerHand().card(0));
+        listener.dealerCardDealt(Card.BACK);
 
         // Check for win conditions after dealing cards
-        checkForWin();
+        checkForWin(result);
+        metrics.recordPlaceBet(startNanos, startAllocated);
     }
 
     /**
      * Deals an additional card to the player and checks for any end-of-round conditions.
      */
     public void hit() {
-        playerHand.add(cardStack.pop());
-        blackjackGUI.addPlayerCardImage(getPlayerHand().get(getPlayerHand().size() - 1));
+        long startNanos = System.nanoTime();
+        long startAllocated = metrics.allocatedBytes();
+        if (recording != null) {
+            recording.recordHit();
+        }
+        int result = engine.hit();
+        Hand playerHand = engine.getPlayerHand();
+        listener.playerCardDealt(playerHand.card(playerHand.size() - 1));
 
-        checkForWin();
+        checkForWin(result);
+        metrics.recordHit(startNanos, startAllocated);
     }
 
     /**
      * Ends the player's turn and allows the dealer to play according to Blackjack rules.
      */
     public void stand() {
-        while (countHandValue(dealerHand) < 17) {
-            dealerHand.add(cardStack.pop());
-            blackjackGUI.addDealerCardImage(getDealerHand().get(getDealerHand().size() - 1));
+        long startNanos = System.nanoTime();
+        long startAllocated = metrics.allocatedBytes();
+        if (recording != null) {
+            recording.recordStand();
         }
+        Hand dealerHand = engine.getDealerHand();
+        int dealtBefore = dealerHand.size();
+        int result = engine.stand();
 
-        dealerPlayed = true;
-        checkForWin();
+        for (int i = dealtBefore; i < dealerHand.size(); i++) {
+            listener.dealerCardDealt(dealerHand.card(i));
+        }
+
+        checkForWin(result);
+        metrics.recordStand(startNanos, startAllocated);
     }
 
     /**
-     * Determines if the game is over and returns the outcome.
+     * Checks the result of the game after each action and notifies the listener accordingly.
      *
-     * @return -1 if the game is still ongoing, 0 if the dealer wins, 1 if the player wins, or 2 if it's a tie.
+     * @param result The result code reported by the engine.
      */
-    private int checkGameOver() {
-        int playerValue = countHandValue(playerHand);
-        int dealerValue = countHandValue(dealerHand);
-
-        // Check for Blackjacks first
-        boolean playerBlackjack = (playerValue == 21 && playerHand.size() == 2);
-        boolean dealerBlackjack = (dealerValue == 21 && dealerHand.size() == 2);
-
-        if (playerBlackjack && dealerBlackjack) {
-            return 2; // Tie if both have Blackjack
-        }
-        if (playerBlackjack) {
-            return 1; // Player wins with Blackjack
-        }
-        if (dealerBlackjack) {
-            return 0; // Dealer wins with Blackjack
-        }
-
-        // Handle other end-of-round conditions
-        if (!dealerPlayed) {
-            if (playerValue > 21) {
-                return 0; // Dealer wins if player busts
-            }
-        } else {
-            if (playerValue == dealerValue) {
-                return 2; // Tie if values are equal
-            } else if (dealerValue > 21 || playerValue > dealerValue) {
-                return 1; // Player wins if dealer busts or player has a higher value
-            } else {
-                return 0; // Dealer wins
+    private void checkForWin(int result) {
+        if (result != BlackjackEngine.IN_PROGRESS) {
+            metrics.roundFinished(allocationMeasured);
+            if (recording != null) {
+                recording.recordResult(result, balanceAfter(result));
             }
         }
 
-        return -1; // Game continues
-    }
-
-    /**
-     * Checks the result of the game after each action and updates the GUI accordingly.
-     */
-    public void checkForWin() {
-        int result = checkGameOver();
-
         // Handle the outcome based on the game result
-        if (result == 0) {
+        if (result == BlackjackEngine.DEALER_WINS) {
             // Dealer wins
-            blackjackGUI.flipDealer();
+            listener.dealerRevealed(engine.getDealerHand());
             handleDealerWin();
-        } else if (result == 1) {
+        } else if (result == BlackjackEngine.PLAYER_WINS) {
             // Player wins
             handsWon++;
             updateHighestBank();
-            blackjackGUI.flipDealer();
-            blackjackGUI.updateBalance(playerBalance + playerBet);
-            JOptionPane.showMessageDialog(null, "You won $" + playerBet + "!");
+            listener.dealerRevealed(engine.getDealerHand());
+            listener.balanceChanged(playerBalance + winnings());
+            listener.roundWon(winnings());
             resetRound();
-        } else if (result == 2) {
+        } else if (result == BlackjackEngine.TIE) {
             // Tie
-            blackjackGUI.flipDealer();
-            blackjackGUI.updateBalance(playerBalance);
-            JOptionPane.showMessageDialog(null, "You tied this hand.");
+            listener.dealerRevealed(engine.getDealerHand());
+            listener.balanceChanged(playerBalance);
+            listener.roundTied();
             resetRound();
         }
     }
 
+    /**
+     * Works out the player's balance once a finished round has been paid.
+     *
+     * @param result The result code of the finished round.
+     * @return The balance after the round.
+     */
+    private int balanceAfter(int result) {
+        if (result == BlackjackEngine.PLAYER_WINS) {
+            return playerBalance + winnings();
+        } else if (result == BlackjackEngine.TIE) {
+            return playerBalance;
+        }
+        return playerBalance - playerBet;
+    }
+
+    /**
+     * Works out what the player's winning hand is paid under the engine's rules.
+     *
+     * @return The amount won on top of the returned bet.
+     */
+    private int winnings() {
+        return engine.getRules().winnings(playerBet, engine.getPlayerHand());
+    }
+
     /**
      * Handles the outcome when the dealer wins the round.
      */
     private void handleDealerWin() {
         if (playerBalance - playerBet == 0) {
-            blackjackGUI.resetGame();
+            listener.bankrupt();
         } else {
             // Update player balance and inform them of the loss
-            blackjackGUI.updateBalance(playerBalance - playerBet);
-            JOptionPane.showMessageDialog(null, "You lost $" + playerBet + "!");
+            listener.balanceChanged(playerBalance - playerBet);
+            listener.roundLost(playerBet);
             resetRound();
         }
     }
 
     /**
-     * Resets the game to a new round, re-shuffling the deck if necessary and clearing player hands.
+     * Starts a new session in place after the last one was recorded: the per-session statistics return
+     * to their starting values and the shoe restarts from a fresh seed, keeping the engine, its buffers,
+     * the solved strategy and the player's high score.
      */
-    public void resetRound() {
-        if (cardStack.size() < 20) {
-            shuffleDeck();
+    public void newSession() {
+        engine.resetRound();
+        handsWon = 0;
+        highestBank = STARTING_BALANCE;
+        playerBalance = 0;
+        playerBet = 0;
+
+        // A recording replays from the seed, so a new recorded session needs a freshly seeded shoe
+        if (recording != null) {
+            engine.getShoe().reseed(Shoe.newSeed());
+            recording = new SessionRecording(engine.getShoe(), STARTING_BALANCE);
         }
-        blackjackGUI.betField.setEditable(true);
-        blackjackGUI.betButton.setEnabled(true);
-        //blackjackGUI.betField.setText("");
+    }
 
-        // Clear player and dealer hands
-        playerHand.clear();
-        dealerHand.clear();
-        dealerPlayed = false;
+    /**
+     * Resets the game to a new round, re-shuffling the deck if necessary and clearing player hands.
+     */
+    public void resetRound() {
+        engine.resetRound();
 
-        // Notify GUI to reset hand views
-        blackjackGUI.resetHandViews();
+        // Notify the listener to reset hand views
+        listener.roundReset();
     }
 
     /**
-     * Retrieves the player's hand with the corresponding card images.
+     * Retrieves the player's hand. The hand is reused from round to round, so callers should not keep it.
      *
-     * @return A list of card image file paths for the player's hand.
+     * @return The player's hand.
      */
-    public List<String> getPlayerHand() {
-        List<String> imageFiles = new ArrayList<>();
-
-        for (String card : playerHand) {
-            imageFiles.add(cardImageMap.get(card));
-        }
-
-        return imageFiles;
+    public Hand getPlayerHand() {
+        return engine.getPlayerHand();
     }
 
     /**
-     * Retrieves the dealer's hand with the corresponding card images.
+     * Retrieves the dealer's hand. The hand is reused from round to round, so callers should not keep it.
      *
-     * @return A list of card image file paths for the dealer's hand.
+     * @return The dealer's hand.
      */
-    public List<String> getDealerHand() {
-        List<String> imageFiles = new ArrayList<>();
+    public Hand getDealerHand() {
+        return engine.getDealerHand();
+    }
 
-        for (String card : dealerHand) {
-            imageFiles.add(cardImageMap.get(card));
+    /**
+     * Computes the odds of each dealer outcome for the round in progress on a background thread. The
+     * composition is taken from the cards the player has not seen: the rest of the shoe and the hole card.
+     * A round in progress means the dealer has no blackjack, so the odds are conditioned on that.
+     *
+     * @return A future completed with the probability of each {@link DealerOddsCalculator} outcome index.
+     */
+    public CompletableFuture<double[]> getDealerOddsAsync() {
+        Hand dealerHand = engine.getDealerHand();
+        int[] composition = new int[DealerOddsCalculator.VALUE_CLASSES];
+        engine.getShoe().countRemaining(composition);
+        composition[DealerOddsCalculator.valueClass(dealerHand.card(1))]++;
+
+        if (dealerOddsCalculator == null) {
+            dealerOddsCalculator = new DealerOddsCalculator(engine.getRules());
         }
 
-        return imageFiles;
+        return dealerOddsCalculator.computeAsync(dealerHand.card(0), composition)
+                .thenApply(DealerOddsCalculator::withoutBlackjack);
     }
 
     /**
-     * Loads the highest score achieved from a file and updates the highScore attribute.
+     * Suggests the best play for the round in progress from the solved strategy table.
+     *
+     * @return True if hitting has the higher expected value, false if standing does.
      */
-    private void loadHighScore() {
-        try {
-            File file = new File(HIGH_SCORE_FILE_PATH);
-
-            // If the file does not exist, create it
-            if (!file.exists()) {
-                file.createNewFile();
-            }
+    public boolean shouldHit() {
+        return getStrategyTable().shouldHit(engine.getPlayerHand(), engine.getDealerHand().card(0));
+    }
 
-            // Read the high score from the file
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line = reader.readLine();
-                highScore = (line != null) ? Integer.parseInt(line) : 0;
-            }
-        } catch (IOException | NumberFormatException e) {
-            highScore = 0; // Default to 0 if an error occurs
+    /**
+     * Retrieves the solved strategy table for this game's shoe, loading it on first use.
+     *
+     * @return The strategy table.
+     */
+    public StrategyTable getStrategyTable() {
+        if (strategyTable == null) {
+            strategyTable = StrategyTable.forRules(engine.getRules().withDecks(engine.getShoe().getDecks()));
         }
+        return strategyTable;
     }
 
     /**
-     * Checks and updates the high score if the current score exceeds the previously saved high score.
+     * Records the finished session for the player and updates the high score if the session beat it.
+     * The stats are written in the background, so this never waits on the disk.
      *
-     * @param currentScore The current score to compare against the high score.
+     * @param currentScore The session's score, the final balance minus the starting balance.
+     * @return True if the session set a new high score.
      */
-    public void checkAndUpdateHighScore(int currentScore) {
-        if (currentScore > highScore) {
+    public boolean recordSession(int currentScore) {
+        boolean newHighScore = currentScore > highScore;
+        if (newHighScore) {
             highScore = currentScore;
-            saveHighScore(); // Save the new high score to the file
         }
+        if (statsStore != null) {
+            statsStore.recordSession(playerName, currentScore, handsWon, highestBank);
+        }
+        if (recording != null && recording.getRounds() > 0) {
+            recording.saveAsync();
+        }
+        return newHighScore;
+    }
+
+    /**
+     * Retrieves the recording of this session's actions and outcomes.
+     *
+     * @return The recording, or null if the session is not recorded.
+     */
+    public SessionRecording getRecording() {
+        return recording;
     }
 
     /**
-     * Saves the current high score to a file.
+     * Records this session's actions and outcomes from now on.
+     *
+     * @param recording The recording to append to, or null to stop recording.
      */
-    private void saveHighScore() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(HIGH_SCORE_FILE_PATH))) {
-            writer.write(Integer.toString(highScore));
-        } catch (IOException e) {
-            System.err.println("Failed to save high score: " + e.getMessage());
-        }
+    public void setRecording(SessionRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Retrieves the players with the best high scores.
+     *
+     * @param count The most players to return.
+     * @return The players' statistics, best first, or an empty list when no stats are recorded.
+     */
+    public List<PlayerStats> getLeaderboard(int count) {
+        return statsStore != null ? statsStore.getTopPlayers(count) : List.of();
     }
 
     /**
-     * Updates the highest bank if the current player balance plus bet is greater than the previous highest bank.
+     * Updates the highest bank if the current player balance plus winnings is greater than the previous highest bank.
      */
     private void updateHighestBank() {
-        if (playerBalance + playerBet > highestBank) {
-            highestBank = playerBalance + playerBet;
+        if (playerBalance + winnings() > highestBank) {
+            highestBank = playerBalance + winnings();
         }
     }
 
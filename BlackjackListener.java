@@ -0,0 +1,69 @@
+/**
+ * The BlackjackListener interface receives the events produced by a {@link BlackjackGame} as a round
+ * is played. The Swing front end is one implementation; headless drivers such as simulators and bots
+ * can implement it (or use {@link #NONE}) to play without a display.
+ */
+public interface BlackjackListener {
+
+    /**
+     * A listener that ignores every event, for headless play.
+     */
+    BlackjackListener NONE = new BlackjackListener() { };
+
+    /**
+     * Called when a card is dealt face up to the player.
+     *
+     * @param card The encoded card.
+     */
+    default void playerCardDealt(int card) { }
+
+    /**
+     * Called when a card is dealt to the dealer. The hole card is reported as {@link Card#BACK}.
+     *
+     * @param card The encoded card.
+     */
+    default void dealerCardDealt(int card) { }
+
+    /**
+     * Called when the round ends and the dealer's full hand is turned face up.
+     *
+     * @param dealerHand The dealer's hand, which is only valid for the duration of the call.
+     */
+    default void dealerRevealed(Hand dealerHand) { }
+
+    /**
+     * Called when the player's balance changes at the end of a round.
+     *
+     * @param newBalance The new balance value.
+     */
+    default void balanceChanged(int newBalance) { }
+
+    /**
+     * Called when the player wins a round.
+     *
+     * @param amount The amount won.
+     */
+    default void roundWon(int amount) { }
+
+    /**
+     * Called when a round ends in a tie.
+     */
+    default void roundTied() { }
+
+    /**
+     * Called when the dealer wins a round and the player still has money left.
+     *
+     * @param amount The amount lost.
+     */
+    default void roundLost(int amount) { }
+
+    /**
+     * Called when the dealer wins a round that leaves the player with no money.
+     */
+    default void bankrupt() { }
+
+    /**
+     * Called once the hands have been cleared and the next bet may be placed.
+     */
+    default void roundReset() { }
+}
@@ -0,0 +1,117 @@
+/**
+ * The Card class encodes playing cards as small integers and holds the precomputed tables used to
+ * name, score and draw them. A card is {@code suit * 13 + rank}, where suits run Clubs, Diamonds,
+ * Hearts, Spades and ranks run 2 through 10, Jack, Queen, King, Ace, so the whole deck fits in 0-51.
+ */
+public final class Card {
+    /** The number of distinct cards in a deck. */
+    public static final int DECK_SIZE = 52;
+    /** The number of ranks in a suit. */
+    public static final int RANKS = 13;
+    /** The rank index of the Ace. */
+    public static final int ACE_RANK = 12;
+    /** A pseudo-card used to display the dealer's face-down hole card. */
+    public static final int BACK = 52;
+
+    private static final String IMAGE_DIRECTORY = "src/Images/PNG-cards-1.3/";
+    private static final String[] SUITS = {"Clubs", "Diamonds", "Hearts", "Spades"};
+    private static final String[] RANK_NAMES = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "Jack", "Queen", "King", "Ace"};
+
+    private static final String[] NAMES = new String[DECK_SIZE + 1];
+    private static final String[] IMAGE_PATHS = new String[DECK_SIZE + 1];
+    private static final int[] HARD_VALUES = new int[DECK_SIZE];
+    private static final int[] HI_LO = new int[DECK_SIZE];
+
+    static {
+        for (int suit = 0; suit < SUITS.length; suit++) {
+            for (int rank = 0; rank < RANKS; rank++) {
+                int card = suit * RANKS + rank;
+                NAMES[card] = RANK_NAMES[rank] + " of " + SUITS[suit];
+                IMAGE_PATHS[card] = IMAGE_DIRECTORY + RANK_NAMES[rank].toLowerCase() + "_of_" + SUITS[suit].toLowerCase() + ".png";
+
+                // Aces count as 1 here; a Hand decides when one of them is worth 11
+                if (rank == ACE_RANK) {
+                    HARD_VALUES[card] = 1;
+                } else if (rank >= 8) {
+                    HARD_VALUES[card] = 10;
+                } else {
+                    HARD_VALUES[card] = rank + 2;
+                }
+
+                // Hi-Lo counts Twos to Sixes as +1, Sevens to Nines as 0 and tens and Aces as -1
+                if (rank <= 4) {
+                    HI_LO[card] = 1;
+                } else if (rank <= 7) {
+                    HI_LO[card] = 0;
+                } else {
+                    HI_LO[card] = -1;
+                }
+            }
+        }
+        NAMES[BACK] = "Face-down card";
+        IMAGE_PATHS[BACK] = IMAGE_DIRECTORY + "back_of_card.png";
+    }
+
+    private Card() {
+    }
+
+    /**
+     * Retrieves the rank index of a card.
+     *
+     * @param card The encoded card.
+     * @return The rank index, from 0 for a Two to {@link #ACE_RANK}.
+     */
+    public static int rank(int card) {
+        return card % RANKS;
+    }
+
+    /**
+     * Retrieves the value of a card with aces counted as 1.
+     *
+     * @param card The encoded card.
+     * @return The hard value of the card, from 1 to 10.
+     */
+    public static int hardValue(int card) {
+        return HARD_VALUES[card];
+    }
+
+    /**
+     * Retrieves a card's tag in the Hi-Lo counting system.
+     *
+     * @param card The encoded card.
+     * @return +1 for a Two to Six, 0 for a Seven to Nine, -1 for a ten-valued card or an Ace.
+     */
+    public static int hiLo(int card) {
+        return HI_LO[card];
+    }
+
+    /**
+     * Checks whether a card is an Ace.
+     *
+     * @param card The encoded card.
+     * @return True if the card is an Ace.
+     */
+    public static boolean isAce(int card) {
+        return card % RANKS == ACE_RANK;
+    }
+
+    /**
+     * Retrieves the display name of a card, such as "Ace of Spades".
+     *
+     * @param card The encoded card, or {@link #BACK}.
+     * @return The card name.
+     */
+    public static String name(int card) {
+        return NAMES[card];
+    }
+
+    /**
+     * Retrieves the image file of a card.
+     *
+     * @param card The encoded card, or {@link #BACK}.
+     * @return The card image file path.
+     */
+    public static String imagePath(int card) {
+        return IMAGE_PATHS[card];
+    }
+}
@@ -0,0 +1,172 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The CardImageCache class keeps decoded card images already scaled to the size they are drawn at,
+ * keyed by card and target width. The least recently used image is evicted once the cache is full,
+ * so extra sizes cannot grow memory without limit, and hit/miss counts show whether dealing a card
+ * ever goes back to the disk or the scaler.
+ */
+public class CardImageCache {
+    /** The default number of scaled images kept, enough for every card and the card back at two sizes. */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private static final CardImageCache SHARED = new CardImageCache(DEFAULT_CAPACITY);
+
+    private final Map<Integer, BufferedImage> images;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity The most scaled images kept at once.
+     */
+    public CardImageCache(int capacity) {
+        images = new LinkedHashMap<Integer, BufferedImage>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cache shared by the whole application.
+     *
+     * @return The shared cache.
+     */
+    public static CardImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Retrieves a card image scaled to the given width, decoding and scaling it on the first request.
+     *
+     * @param card The encoded card, or {@link Card#BACK}.
+     * @param width The width to draw the card at; the height keeps the image's aspect ratio.
+     * @return The scaled image.
+     */
+    public BufferedImage get(int card, int width) {
+        Integer key = (card << 12) | width;
+
+        synchronized (this) {
+            BufferedImage image = images.get(key);
+            if (image != null) {
+                hits++;
+                return image;
+            }
+            misses++;
+        }
+
+        // Decode and scale outside the lock; a racing thread just produces the same image
+        long start = System.nanoTime();
+        BufferedImage image = loadScaled(Card.imagePath(card), width);
+        EngineMetrics.get().recordImageLoad(System.nanoTime() - start);
+        synchronized (this) {
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Decodes and scales every card and the card back at the given width in parallel, one daemon
+     * thread per core, so that later requests at that width are cache hits.
+     *
+     * @param width The width the cards will be drawn at.
+     * @return A future completed once every image is cached.
+     */
+    public CompletableFuture<Void> preload(int width) {
+        ExecutorService loaders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "card-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[Card.DECK_SIZE + 1];
+        for (int card = 0; card <= Card.BACK; card++) {
+            int toLoad = card;
+            loads[card] = CompletableFuture.runAsync(() -> get(toLoad, width), loaders);
+        }
+
+        // The pool's threads finish the queued loads and then exit
+        loaders.shutdown();
+        return CompletableFuture.allOf(loads);
+    }
+
+    /**
+     * Decodes an image file and smoothly scales it to the given width.
+     *
+     * @param imageFile The file path to the image.
+     * @param width The target width.
+     * @return The scaled image, or a blank card-sized image if the file cannot be read.
+     */
+    private static BufferedImage loadScaled(String imageFile, int width) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new File(imageFile));
+        } catch (IOException e) {
+            source = null;
+        }
+        if (source == null) {
+            System.err.println("Failed to load card image: " + imageFile);
+            return new BufferedImage(width, width * 726 / 500, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        int height = Math.max(1, source.getHeight() * width / source.getWidth());
+        Image scaled = source.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(scaled, 0, 0, null);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Retrieves the number of requests served from the cache.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of requests that had to decode and scale an image.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves the number of images evicted to stay within capacity.
+     *
+     * @return The eviction count.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Retrieves the number of scaled images currently held.
+     *
+     * @return The cache size.
+     */
+    public synchronized int size() {
+        return images.size();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The CountHistogram class records non-negative counts, such as rounds played or dollars banked, into
+ * the same log-linear buckets as {@link LatencyHistogram}, so its memory is fixed however many values
+ * are recorded. It is owned by one thread at a time; parallel tasks each fill their own histogram and
+ * combine them with {@link #merge(CountHistogram)}.
+ */
+public class CountHistogram {
+    private final long[] buckets = new long[LatencyHistogram.BUCKETS];
+    private long count;
+    private double total;
+    private long max;
+
+    /**
+     * Records one value.
+     *
+     * @param value The value; negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long recorded = Math.max(0, value);
+        buckets[LatencyHistogram.bucket(recorded)]++;
+        count++;
+        total += recorded;
+        max = Math.max(max, recorded);
+    }
+
+    /**
+     * Adds another histogram's values to this one.
+     *
+     * @param other The histogram to merge in.
+     * @return This histogram.
+     */
+    public CountHistogram merge(CountHistogram other) {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Estimates a percentile of the recorded values.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The upper bound of the bucket holding the percentile.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Retrieves the number of values recorded.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the mean of the recorded values.
+     *
+     * @return The mean.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Retrieves the largest recorded value.
+     *
+     * @return The maximum.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Formats the mean and main percentiles.
+     *
+     * @return The summary text.
+     */
+    @Override
+    public String toString() {
+        return String.format("mean=%.1f p10=%d p50=%d p90=%d p99=%d max=%d",
+                getMean(), getPercentile(10), getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The DealerOddsCalculator class computes the exact distribution of the dealer's final hand for a
+ * face-up card and the composition of the unseen cards, following the dealer's drawing policy and
+ * Charlie rule from a {@link RuleSet}. Each query walks the draw tree once with memoized recursion,
+ * and finished distributions are cached so repeating a query is a single lookup. Queries can run on
+ * a background thread so the event thread never waits for them.
+ */
+public class DealerOddsCalculator {
+    /** The number of card value classes: Ace, 2 through 9, and the ten-valued cards. */
+    public static final int VALUE_CLASSES = 10;
+
+    /** Outcome index of a dealer finishing on 17; 18 through 21 follow in order. */
+    public static final int OUTCOME_17 = 0;
+    /** Outcome index of a dealer finishing on a non-Charlie 21 of three or more cards. */
+    public static final int OUTCOME_21 = 4;
+    /** Outcome index of a dealer blackjack. */
+    public static final int OUTCOME_BLACKJACK = 5;
+    /** Outcome index of a dealer Five-Card Charlie, or the rule set's longer Charlie. */
+    public static final int OUTCOME_CHARLIE = 6;
+    /** Outcome index of a dealer bust. */
+    public static final int OUTCOME_BUST = 7;
+    /** The number of outcome indexes. */
+    public static final int OUTCOMES = 8;
+
+    /** The most finished distributions cached for each upcard. */
+    private static final int CACHE_CAPACITY = 4096;
+    /** Bits used per value class in a recursion memo key; without a Charlie the dealer can draw up to 16 aces. */
+    private static final int REMOVED_BITS = 5;
+
+    /** The background thread shared by every calculator for asynchronous queries. */
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dealer-odds");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RuleSet rules;
+    private final List<Map<Long, double[]>> cache;
+
+    /**
+     * Constructs a calculator with an empty cache for the default rules.
+     */
+    public DealerOddsCalculator() {
+        this(RuleSet.DEFAULT);
+    }
+
+    /**
+     * Constructs a calculator with an empty cache.
+     *
+     * @param rules The rules the dealer plays by.
+     */
+    public DealerOddsCalculator(RuleSet rules) {
+        this.rules = rules;
+        cache = new ArrayList<>(VALUE_CLASSES);
+        for (int i = 0; i < VALUE_CLASSES; i++) {
+            cache.add(new LinkedHashMap<Long, double[]>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            });
+        }
+    }
+
+    /**
+     * Maps a card to its value class.
+     *
+     * @param card The encoded card.
+     * @return 0 for an Ace, 1 to 8 for Two to Nine, and 9 for ten-valued cards.
+     */
+    public static int valueClass(int card) {
+        return Card.hardValue(card) - 1;
+    }
+
+    /**
+     * Computes the dealer's outcome distribution on a background thread.
+     *
+     * @param upcard The dealer's face-up card.
+     * @param composition The number of unseen cards in each value class, including the hole card.
+     * @return A future completed with the probability of each outcome index.
+     */
+    public CompletableFuture<double[]> computeAsync(int upcard, int[] composition) {
+        int[] snapshot = composition.clone();
+        return CompletableFuture.supplyAsync(() -> compute(upcard, snapshot), EXECUTOR);
+    }
+
+    /**
+     * Computes the dealer's outcome distribution.
+     *
+     * @param upcard The dealer's face-up card.
+     * @param composition The number of unseen cards in each value class, including the hole card.
+     * @return The probability of each outcome index.
+     */
+    public double[] compute(int upcard, int[] composition) {
+        int upClass = valueClass(upcard);
+        long key = compositionKey(composition);
+
+        Map<Long, double[]> upcardCache = cache.get(upClass);
+        synchronized (upcardCache) {
+            double[] cached = upcardCache.get(key);
+            if (cached != null) {
+                return cached.clone();
+            }
+        }
+
+        int total = 0;
+        for (int count : composition) {
+            total += count;
+        }
+        double[] odds = draw(upClass + 1, upClass == 0, 1, composition, new int[VALUE_CLASSES], 0, total, new HashMap<>());
+
+        synchronized (upcardCache) {
+            upcardCache.put(key, odds);
+        }
+        return odds.clone();
+    }
+
+    /**
+     * Conditions a distribution on the dealer not holding a blackjack, which is what the player knows
+     * once a round survives the deal, since a dealer blackjack ends the round at once.
+     *
+     * @param odds The probability of each outcome index.
+     * @return A new distribution with no blackjack outcome, renormalized to sum to 1.
+     */
+    public static double[] withoutBlackjack(double[] odds) {
+        double[] conditioned = new double[OUTCOMES];
+        double remaining = 1 - odds[OUTCOME_BLACKJACK];
+        if (remaining <= 0) {
+            return conditioned;
+        }
+        for (int i = 0; i < OUTCOMES; i++) {
+            if (i != OUTCOME_BLACKJACK) {
+                conditioned[i] = odds[i] / remaining;
+            }
+        }
+        return conditioned;
+    }
+
+    /**
+     * Recursively computes the outcome distribution from a partial dealer hand.
+     *
+     * @param hardTotal The hand total with aces counted as 1.
+     * @param hasAce Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @param composition The unseen cards before the dealer started drawing.
+     * @param removed The cards the dealer has drawn from the composition so far.
+     * @param removedKey The removed counts packed {@link #REMOVED_BITS} bits per class.
+     * @param remaining The number of unseen cards left.
+     * @param memo The distributions already computed in this query, keyed by removed counts.
+     * @return The probability of each outcome index.
+     */
+    private double[] draw(int hardTotal, boolean hasAce, int cards, int[] composition, int[] removed,
+                          long removedKey, int remaining, Map<Long, double[]> memo) {
+        int value = (hasAce && hardTotal + 10 <= 21) ? hardTotal + 10 : hardTotal;
+
+        // The dealer stands once the rules say so, which includes any Charlie
+        if (!rules.dealerDraws(hardTotal, hasAce, cards) || remaining == 0) {
+            double[] odds = new double[OUTCOMES];
+            odds[outcome(value, cards)] = 1;
+            return odds;
+        }
+
+        double[] odds = memo.get(removedKey);
+        if (odds != null) {
+            return odds;
+        }
+
+        odds = new double[OUTCOMES];
+        for (int c = 0; c < VALUE_CLASSES; c++) {
+            int available = composition[c] - removed[c];
+            if (available == 0) {
+                continue;
+            }
+
+            double probability = (double) available / remaining;
+            removed[c]++;
+            double[] next = draw(hardTotal + c + 1, hasAce || c == 0, cards + 1, composition, removed,
+                    removedKey + (1L << (c * REMOVED_BITS)), remaining - 1, memo);
+            removed[c]--;
+
+            for (int i = 0; i < OUTCOMES; i++) {
+                odds[i] += probability * next[i];
+            }
+        }
+
+        memo.put(removedKey, odds);
+        return odds;
+    }
+
+    /**
+     * Classifies a finished dealer hand.
+     *
+     * @param value The hand value before any Charlie adjustment.
+     * @param cards The number of cards in the hand.
+     * @return The outcome index.
+     */
+    private int outcome(int value, int cards) {
+        if (value > 21) {
+            return OUTCOME_BUST;
+        }
+        if (cards == 2 && value == 21) {
+            return OUTCOME_BLACKJACK;
+        }
+        if (cards == rules.getCharlieCards() && value < 21) {
+            return OUTCOME_CHARLIE;
+        }
+        return value < BlackjackEngine.DEALER_STANDS_ON ? OUTCOME_17 : value - BlackjackEngine.DEALER_STANDS_ON;
+    }
+
+    /**
+     * Packs a composition into a cache key: six bits for each non-ten class and eight for the tens,
+     * which covers an eight-deck shoe.
+     *
+     * @param composition The number of unseen cards in each value class.
+     * @return The packed key.
+     */
+    private static long compositionKey(int[] composition) {
+        long key = 0;
+        for (int c = 0; c < VALUE_CLASSES - 1; c++) {
+            key = (key << 6) | composition[c];
+        }
+        return (key << 8) | composition[VALUE_CLASSES - 1];
+    }
+}
@@ -0,0 +1,284 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The EngineMetrics class collects live measurements of the engine, the UI and the persistence
+ * code, and publishes them as an MBean. Every counter is a striped {@link LongAdder} or a
+ * {@link LatencyHistogram}, so recording from many tables or simulation threads at once never
+ * contends on a shared field. Recording is always on; registering only makes it visible.
+ */
+public class EngineMetrics implements EngineMetricsMBean {
+    /** The name the metrics are registered under. */
+    public static final String OBJECT_NAME = "blackjack:type=EngineMetrics";
+
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean allocationSupported;
+
+    private final LatencyHistogram placeBetLatency = new LatencyHistogram();
+    private final LatencyHistogram hitLatency = new LatencyHistogram();
+    private final LatencyHistogram standLatency = new LatencyHistogram();
+    private final LatencyHistogram shuffleDuration = new LatencyHistogram();
+    private final LatencyHistogram imageLoadDuration = new LatencyHistogram();
+    private final LatencyHistogram statsSaveDuration = new LatencyHistogram();
+    private final LongAdder handsPlayed = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder allocationRounds = new LongAdder();
+
+    // The last reading of the hand rate, guarded by this
+    private long rateNanos = System.nanoTime();
+    private long rateHands;
+    private double handsPerSecond;
+
+    /**
+     * Constructs the metrics, enabling per-thread allocation counting where the JVM supports it.
+     */
+    private EngineMetrics() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            threads = sunBean;
+            allocationSupported = true;
+        } else {
+            threads = null;
+            allocationSupported = false;
+        }
+    }
+
+    /**
+     * Retrieves the metrics shared by the whole application.
+     *
+     * @return The metrics.
+     */
+    public static EngineMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server. Registering twice has no effect.
+     */
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already visible
+        } catch (JMException e) {
+            System.err.println("Failed to register engine metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the heap allocated so far by the current thread, the starting point of an allocation measurement.
+     *
+     * @return The bytes allocated, or -1 if the JVM cannot measure it for this thread.
+     */
+    public long allocatedBytes() {
+        return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Records placing a bet and dealing.
+     *
+     * @param startNanos The {@link System#nanoTime()} when the action started.
+     * @param startAllocated The {@link #allocatedBytes()} when the action started.
+     */
+    public void recordPlaceBet(long startNanos, long startAllocated) {
+        recordAction(placeBetLatency, startNanos, startAllocated);
+    }
+
+    /**
+     * Records a hit.
+     *
+     * @param startNanos The {@link System#nanoTime()} when the action started.
+     * @param startAllocated The {@link #allocatedBytes()} when the action started.
+     */
+    public void recordHit(long startNanos, long startAllocated) {
+        recordAction(hitLatency, startNanos, startAllocated);
+    }
+
+    /**
+     * Records standing and the dealer's play.
+     *
+     * @param startNanos The {@link System#nanoTime()} when the action started.
+     * @param startAllocated The {@link #allocatedBytes()} when the action started.
+     */
+    public void recordStand(long startNanos, long startAllocated) {
+        recordAction(standLatency, startNanos, startAllocated);
+    }
+
+    /**
+     * Records one game action's latency and, when measurable, the heap it allocated.
+     *
+     * @param histogram The action's latency histogram.
+     * @param startNanos The {@link System#nanoTime()} when the action started.
+     * @param startAllocated The {@link #allocatedBytes()} when the action started.
+     */
+    private void recordAction(LatencyHistogram histogram, long startNanos, long startAllocated) {
+        histogram.record(System.nanoTime() - startNanos);
+        if (startAllocated >= 0) {
+            long allocated = allocatedBytes();
+            if (allocated >= startAllocated) {
+                allocatedBytes.add(allocated - startAllocated);
+            }
+        }
+    }
+
+    /**
+     * Records one finished round played through the game actions.
+     *
+     * @param allocationMeasured Whether the round's actions could measure their allocations.
+     */
+    public void roundFinished(boolean allocationMeasured) {
+        handsPlayed.increment();
+        if (allocationMeasured) {
+            allocationRounds.increment();
+        }
+    }
+
+    /**
+     * Records rounds played directly on an engine, as the simulator does.
+     *
+     * @param hands The number of rounds.
+     */
+    public void roundsFinished(long hands) {
+        handsPlayed.add(hands);
+    }
+
+    /**
+     * Records one shuffle of a shoe.
+     *
+     * @param nanos The time the shuffle took.
+     */
+    public void recordShuffle(long nanos) {
+        shuffleDuration.record(nanos);
+    }
+
+    /**
+     * Records decoding and scaling one card image.
+     *
+     * @param nanos The time the load took.
+     */
+    public void recordImageLoad(long nanos) {
+        imageLoadDuration.record(nanos);
+    }
+
+    /**
+     * Records one write of the player stats file.
+     *
+     * @param nanos The time the write took.
+     */
+    public void recordStatsSave(long nanos) {
+        statsSaveDuration.record(nanos);
+    }
+
+    @Override
+    public long getHandsPlayed() {
+        return handsPlayed.sum();
+    }
+
+    @Override
+    public synchronized double getHandsPerSecond() {
+        long now = System.nanoTime();
+        long hands = handsPlayed.sum();
+
+        // Reads less than a second apart reuse the last rate rather than measuring a tiny window
+        if (now - rateNanos >= 1_000_000_000L) {
+            handsPerSecond = (hands - rateHands) * 1e9 / (now - rateNanos);
+            rateNanos = now;
+            rateHands = hands;
+        }
+        return handsPerSecond;
+    }
+
+    @Override
+    public double getAllocatedBytesPerRound() {
+        long rounds = allocationRounds.sum();
+        return rounds == 0 ? 0 : (double) allocatedBytes.sum() / rounds;
+    }
+
+    @Override
+    public String getPlaceBetLatency() {
+        return placeBetLatency.toString();
+    }
+
+    @Override
+    public double getPlaceBetP99Micros() {
+        return placeBetLatency.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public String getHitLatency() {
+        return hitLatency.toString();
+    }
+
+    @Override
+    public double getHitP99Micros() {
+        return hitLatency.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public String getStandLatency() {
+        return standLatency.toString();
+    }
+
+    @Override
+    public double getStandP99Micros() {
+        return standLatency.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public long getShuffleCount() {
+        return shuffleDuration.getCount();
+    }
+
+    @Override
+    public double getHandsPerShuffle() {
+        long shuffles = shuffleDuration.getCount();
+        return shuffles == 0 ? 0 : (double) handsPlayed.sum() / shuffles;
+    }
+
+    @Override
+    public String getShuffleDuration() {
+        return shuffleDuration.toString();
+    }
+
+    @Override
+    public String getImageLoadDuration() {
+        return imageLoadDuration.toString();
+    }
+
+    @Override
+    public String getStatsSaveDuration() {
+        return statsSaveDuration.toString();
+    }
+
+    @Override
+    public String getStartupPhases() {
+        return StartupTimer.get().toString();
+    }
+
+    @Override
+    public long getTimeToInteractiveMillis() {
+        return StartupTimer.get().getMillis(StartupTimer.INTERACTIVE);
+    }
+
+    @Override
+    public synchronized void reset() {
+        placeBetLatency.reset();
+        hitLatency.reset();
+        standLatency.reset();
+        shuffleDuration.reset();
+        imageLoadDuration.reset();
+        statsSaveDuration.reset();
+        handsPlayed.reset();
+        allocatedBytes.reset();
+        allocationRounds.reset();
+        rateNanos = System.nanoTime();
+        rateHands = 0;
+        handsPerSecond = 0;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * The EngineMetricsMBean interface is the management view of {@link EngineMetrics}, readable from
+ * JConsole or VisualVM under {@code blackjack:type=EngineMetrics}. Latencies are reported as a
+ * summary line plus a 99th percentile in microseconds that the tools can chart.
+ */
+public interface EngineMetricsMBean {
+    /**
+     * Retrieves the number of rounds finished since start or the last reset.
+     *
+     * @return The round count.
+     */
+    long getHandsPlayed();
+
+    /**
+     * Retrieves the rate rounds have finished at since this attribute was last read.
+     *
+     * @return The rounds per second.
+     */
+    double getHandsPerSecond();
+
+    /**
+     * Retrieves the mean heap allocated by the game actions of one round.
+     *
+     * @return The bytes allocated per round, or 0 if the JVM cannot measure it.
+     */
+    double getAllocatedBytesPerRound();
+
+    /**
+     * Summarizes the latency of placing a bet and dealing.
+     *
+     * @return The latency summary.
+     */
+    String getPlaceBetLatency();
+
+    /**
+     * Retrieves the 99th percentile latency of placing a bet and dealing.
+     *
+     * @return The latency in microseconds.
+     */
+    double getPlaceBetP99Micros();
+
+    /**
+     * Summarizes the latency of a hit.
+     *
+     * @return The latency summary.
+     */
+    String getHitLatency();
+
+    /**
+     * Retrieves the 99th percentile latency of a hit.
+     *
+     * @return The latency in microseconds.
+     */
+    double getHitP99Micros();
+
+    /**
+     * Summarizes the latency of standing, including the dealer's draws.
+     *
+     * @return The latency summary.
+     */
+    String getStandLatency();
+
+    /**
+     * Retrieves the 99th percentile latency of standing.
+     *
+     * @return The latency in microseconds.
+     */
+    double getStandP99Micros();
+
+    /**
+     * Retrieves the number of shoe shuffles.
+     *
+     * @return The shuffle count.
+     */
+    long getShuffleCount();
+
+    /**
+     * Retrieves the mean number of rounds finished per shuffle.
+     *
+     * @return The rounds per shuffle.
+     */
+    double getHandsPerShuffle();
+
+    /**
+     * Summarizes the time taken by each shuffle.
+     *
+     * @return The duration summary.
+     */
+    String getShuffleDuration();
+
+    /**
+     * Summarizes the time taken to decode and scale each card image.
+     *
+     * @return The duration summary.
+     */
+    String getImageLoadDuration();
+
+    /**
+     * Summarizes the time taken by each write of the player stats file.
+     *
+     * @return The duration summary.
+     */
+    String getStatsSaveDuration();
+
+    /**
+     * Summarizes when each startup phase finished, in milliseconds since the JVM was launched.
+     *
+     * @return The startup phases.
+     */
+    String getStartupPhases();
+
+    /**
+     * Retrieves how long after launch the welcome screen first accepted input.
+     *
+     * @return The time to interactive in milliseconds, or -1 if the screen has not been shown.
+     */
+    long getTimeToInteractiveMillis();
+
+    /**
+     * Clears every measurement in place. Recording carries on during a reset, so a sample recorded
+     * while it runs may be kept in some counters and cleared from others.
+     */
+    void reset();
+}
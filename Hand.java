@@ -0,0 +1,199 @@
+/**
+ * The Hand class holds the encoded cards of one Blackjack hand in a primitive array and keeps its
+ * totals up to date as cards are added, so that reading the value, blackjack, bust or Five-Card
+ * Charlie state of a hand never boxes, hashes or allocates. A hand built for a {@link RuleSet} may
+ * need more cards for a Charlie, or none at all.
+ */
+public class Hand {
+    /** The most cards a hand can hold before it is certain to be over 21. */
+    public static final int MAX_CARDS = 22;
+    /** The number of cards that makes a Five-Card Charlie. */
+    public static final int CHARLIE_CARDS = 5;
+
+    // Final hand value indexed by (hard total << 2) | (has ace ? 1 : 0) | (Charlie card count ? 2 : 0)
+    private static final int[] VALUE_TABLE = new int[32 << 2];
+
+    static {
+        for (int hard = 0; hard < 32; hard++) {
+            for (int flags = 0; flags < 4; flags++) {
+                boolean hasAce = (flags & 1) != 0;
+                boolean charlieCount = (flags & 2) != 0;
+
+                // At most one ace can count as 11 without going over 21
+                int value = (hasAce && hard + 10 <= 21) ? hard + 10 : hard;
+
+                // Check for Five-Card Charlie
+                if (charlieCount && value < 21) {
+                    value = 21;
+                }
+                VALUE_TABLE[(hard << 2) | flags] = value;
+            }
+        }
+    }
+
+    private final int[] cards;
+    private final int charlieCards;
+    private int size;
+    private int hardTotal;
+    private int aceCount;
+    private int state;
+    private int value;
+
+    /**
+     * Constructs a new empty hand that plays by the Five-Card Charlie rule.
+     */
+    public Hand() {
+        this(CHARLIE_CARDS);
+    }
+
+    /**
+     * Constructs a new empty hand.
+     *
+     * @param charlieCards The number of cards under 21 that counts as 21, or {@link RuleSet#NO_CHARLIE}.
+     */
+    public Hand(int charlieCards) {
+        cards = new int[MAX_CARDS];
+        this.charlieCards = charlieCards;
+    }
+
+    /**
+     * Computes the value table index of a hand, which {@link RuleSet} also uses to index its tables.
+     *
+     * @param hardTotal The hand total with aces counted as 1.
+     * @param hasAce 1 if the hand holds an ace, otherwise 0.
+     * @param cards The number of cards in the hand.
+     * @param charlieCards The Charlie card count, or {@link RuleSet#NO_CHARLIE}.
+     * @return The index.
+     */
+    static int state(int hardTotal, int hasAce, int cards, int charlieCards) {
+        return (Math.min(hardTotal, 31) << 2) | hasAce | (cards == charlieCards ? 2 : 0);
+    }
+
+    /**
+     * Looks up the value of a hand from its value table index.
+     *
+     * @param state The index.
+     * @return The hand value.
+     */
+    static int valueOfState(int state) {
+        return VALUE_TABLE[state];
+    }
+
+    /**
+     * Adds a card to the hand and updates its totals.
+     *
+     * @param card The encoded card to add.
+     */
+    public void add(int card) {
+        cards[size++] = card;
+        hardTotal += Card.hardValue(card);
+        if (Card.isAce(card)) {
+            aceCount++;
+        }
+        state = state(hardTotal, aceCount > 0 ? 1 : 0, size, charlieCards);
+        value = VALUE_TABLE[state];
+    }
+
+    /**
+     * Removes every card from the hand.
+     */
+    public void clear() {
+        size = 0;
+        hardTotal = 0;
+        aceCount = 0;
+        state = 0;
+        value = 0;
+    }
+
+    /**
+     * Retrieves one of the cards in the hand.
+     *
+     * @param index The position of the card in the hand.
+     * @return The encoded card.
+     */
+    public int card(int index) {
+        return cards[index];
+    }
+
+    /**
+     * Retrieves the number of cards in the hand.
+     *
+     * @return The card count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the total of the hand with every ace counted as 1.
+     *
+     * @return The hard total.
+     */
+    public int hardTotal() {
+        return hardTotal;
+    }
+
+    /**
+     * Retrieves the number of aces in the hand.
+     *
+     * @return The ace count.
+     */
+    public int aceCount() {
+        return aceCount;
+    }
+
+    /**
+     * Retrieves the value table index of the hand's current totals.
+     *
+     * @return The index.
+     */
+    int state() {
+        return state;
+    }
+
+    /**
+     * Retrieves the value of the hand, using the best use of aces and counting a Five-Card Charlie as 21.
+     *
+     * @return The hand value.
+     */
+    public int value() {
+        return value;
+    }
+
+    /**
+     * Checks whether one of the hand's aces is currently counted as 11.
+     *
+     * @return True if the hand is soft.
+     */
+    public boolean isSoft() {
+        return aceCount > 0 && hardTotal + 10 <= 21;
+    }
+
+    /**
+     * Checks whether the hand is a two-card 21.
+     *
+     * @return True if the hand is a blackjack.
+     */
+    public boolean isBlackjack() {
+        return size == 2 && value == 21;
+    }
+
+    /**
+     * Checks whether the hand is worth more than 21.
+     *
+     * @return True if the hand is bust.
+     */
+    public boolean isBust() {
+        return value > 21;
+    }
+
+    /**
+     * Checks whether the hand is a Charlie: five cards (or the rule set's Charlie count) that would be
+     * worth less than 21 on their own.
+     *
+     * @return True if the hand is a Charlie.
+     */
+    public boolean isFiveCardCharlie() {
+        return size == charlieCards && value == 21 && (isSoft() ? hardTotal + 10 : hardTotal) < 21;
+    }
+}
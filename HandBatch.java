@@ -0,0 +1,171 @@
+/**
+ * The HandBatch class lays out many finished or in-progress rounds as parallel primitive arrays, one
+ * entry per round, so that {@link BatchHandEvaluator} can score them a whole vector of rounds at a
+ * time. Inputs are each hand's hard total, ace count and card count plus whether the dealer has
+ * played; the evaluator fills in each hand's value, its flags and the round's result code.
+ */
+public class HandBatch {
+    /** Flag set when one of the hand's aces counts as 11. */
+    public static final int SOFT = 1;
+    /** Flag set when the hand is worth more than 21. */
+    public static final int BUST = 2;
+    /** Flag set when the hand is a two-card 21. */
+    public static final int BLACKJACK = 4;
+    /** Flag set when the hand is a Five-Card Charlie. */
+    public static final int CHARLIE = 8;
+
+    final int[] playerHard;
+    final int[] playerAces;
+    final int[] playerCards;
+    final int[] dealerHard;
+    final int[] dealerAces;
+    final int[] dealerCards;
+    final int[] dealerPlayed;
+
+    final int[] playerValues;
+    final int[] dealerValues;
+    final int[] playerFlags;
+    final int[] dealerFlags;
+    final int[] results;
+
+    private int size;
+
+    /**
+     * Constructs an empty batch.
+     *
+     * @param capacity The most rounds the batch can hold.
+     */
+    public HandBatch(int capacity) {
+        playerHard = new int[capacity];
+        playerAces = new int[capacity];
+        playerCards = new int[capacity];
+        dealerHard = new int[capacity];
+        dealerAces = new int[capacity];
+        dealerCards = new int[capacity];
+        dealerPlayed = new int[capacity];
+        playerValues = new int[capacity];
+        dealerValues = new int[capacity];
+        playerFlags = new int[capacity];
+        dealerFlags = new int[capacity];
+        results = new int[capacity];
+    }
+
+    /**
+     * Adds a round described by its hands' totals.
+     *
+     * @param playerHard The player's hard total, every ace counted as 1.
+     * @param playerAces The number of aces in the player's hand.
+     * @param playerCards The number of cards in the player's hand.
+     * @param dealerHard The dealer's hard total.
+     * @param dealerAces The number of aces in the dealer's hand.
+     * @param dealerCards The number of cards in the dealer's hand.
+     * @param dealerPlayed Whether the dealer has played out their hand.
+     * @return The index of the round in the batch.
+     * @throws IllegalStateException If the batch is full.
+     */
+    public int add(int playerHard, int playerAces, int playerCards,
+                   int dealerHard, int dealerAces, int dealerCards, boolean dealerPlayed) {
+        if (size == results.length) {
+            throw new IllegalStateException("Batch is full: " + size);
+        }
+        int i = size++;
+        this.playerHard[i] = playerHard;
+        this.playerAces[i] = playerAces;
+        this.playerCards[i] = playerCards;
+        this.dealerHard[i] = dealerHard;
+        this.dealerAces[i] = dealerAces;
+        this.dealerCards[i] = dealerCards;
+        this.dealerPlayed[i] = dealerPlayed ? 1 : 0;
+        return i;
+    }
+
+    /**
+     * Adds the round an engine is currently playing. The batch is scored under the default rules, so the
+     * engine should play by them too.
+     *
+     * @param engine The engine.
+     * @return The index of the round in the batch.
+     * @throws IllegalStateException If the batch is full.
+     */
+    public int add(BlackjackEngine engine) {
+        Hand player = engine.getPlayerHand();
+        Hand dealer = engine.getDealerHand();
+        return add(player.hardTotal(), player.aceCount(), player.size(),
+                dealer.hardTotal(), dealer.aceCount(), dealer.size(), engine.isDealerPlayed());
+    }
+
+    /**
+     * Removes every round from the batch, keeping its arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Retrieves the number of rounds in the batch.
+     *
+     * @return The round count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the most rounds the batch can hold.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return results.length;
+    }
+
+    /**
+     * Retrieves the evaluated value of a round's player hand.
+     *
+     * @param index The round's index.
+     * @return The hand value, as {@link Hand#value()} reports it.
+     */
+    public int playerValue(int index) {
+        return playerValues[index];
+    }
+
+    /**
+     * Retrieves the evaluated value of a round's dealer hand.
+     *
+     * @param index The round's index.
+     * @return The hand value, as {@link Hand#value()} reports it.
+     */
+    public int dealerValue(int index) {
+        return dealerValues[index];
+    }
+
+    /**
+     * Retrieves the evaluated flags of a round's player hand.
+     *
+     * @param index The round's index.
+     * @return A combination of {@link #SOFT}, {@link #BUST}, {@link #BLACKJACK} and {@link #CHARLIE}.
+     */
+    public int playerFlags(int index) {
+        return playerFlags[index];
+    }
+
+    /**
+     * Retrieves the evaluated flags of a round's dealer hand.
+     *
+     * @param index The round's index.
+     * @return A combination of {@link #SOFT}, {@link #BUST}, {@link #BLACKJACK} and {@link #CHARLIE}.
+     */
+    public int dealerFlags(int index) {
+        return dealerFlags[index];
+    }
+
+    /**
+     * Retrieves the evaluated result of a round.
+     *
+     * @param index The round's index.
+     * @return The result code, as {@link BlackjackEngine#checkGameOver()} reports it.
+     */
+    public int result(int index) {
+        return results[index];
+    }
+}
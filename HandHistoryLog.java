@@ -0,0 +1,652 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The HandHistoryLog class records every finished round to an append-only binary file written
+ * through memory-mapped chunks. Each round is one fixed 64-byte record, so record {@code n} always
+ * sits at a known offset. Appending takes no lock: a producer reserves its record number with an
+ * atomic add, writes the record straight into the mapping and publishes it by writing its card
+ * counts last. A background flusher thread indexes the published records and forces them to disk
+ * once every batch, so no producer ever waits on the disk or on another producer. A side index,
+ * saved next to the log, lists the record numbers for each outcome, dealer upcard, player total and
+ * session, so queries never scan the log. If the process stops without closing the log, the records
+ * written since the index was saved are indexed again on the next open.
+ *
+ * <p>The file starts with a 64-byte header (magic, version, record size), then the records,
+ * little-endian:
+ * <pre>
+ *  0  int   session id
+ *  4  int   round number within the session
+ *  8  int   bet
+ * 12  byte  outcome (BlackjackEngine result code)
+ * 13  byte  dealer upcard
+ * 14  byte  player total
+ * 15  byte  dealer total
+ * 16  byte  player card count (never 0 in a written record)
+ * 17  byte  dealer card count
+ * 18  2     padding
+ * 20  22    player cards
+ * 42  13    dealer cards
+ * 55  9     padding
+ * </pre>
+ */
+public class HandHistoryLog implements Closeable {
+    /** The size of one record in bytes. */
+    public static final int RECORD_SIZE = 64;
+    /** The number of records written between each force to disk. */
+    public static final int DEFAULT_SYNC_BATCH = 4096;
+    /** The most records a log holds: any one index list may hold every record, and a list is one array. */
+    public static final long MAX_RECORDS = Integer.MAX_VALUE - 8;
+    /**
+     * The most cards a player's hand can hold under any {@link RuleSet}: twenty-one Aces counted as
+     * one each, then the card that busts.
+     */
+    public static final int PLAYER_CARDS = 22;
+    /**
+     * The most cards a dealer's hand can hold under any {@link RuleSet}: without a Charlie rule and
+     * hitting soft 17, seven Aces, a Five to make a hard 12, then five more Aces.
+     */
+    public static final int DEALER_CARDS = 13;
+
+    private static final int LOG_MAGIC = 0x424A484C; // "BJHL"
+    private static final int LOG_VERSION = 2;
+    private static final int INDEX_MAGIC = 0x424A4849; // "BJHI"
+    private static final int HEADER_SIZE = RECORD_SIZE;
+    private static final int RECORDS_PER_CHUNK = 65536;
+    private static final long MAP_CHUNK = (long) RECORD_SIZE * RECORDS_PER_CHUNK;
+    private static final int MAX_TOTAL = 32;
+    private static final int COUNTS_OFFSET = 16;
+    private static final int PLAYER_CARDS_OFFSET = 20;
+    private static final int DEALER_CARDS_OFFSET = PLAYER_CARDS_OFFSET + PLAYER_CARDS;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    // Publishes a record's card counts with release semantics, and reads them with acquire
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final File indexFile;
+    private final int syncBatch;
+    private final AtomicLong nextRecord = new AtomicLong();
+    private final Thread flusher;
+    private volatile boolean closing;
+
+    // Mapped chunks by chunk number; copied on write under mapLock, and dropped once forced
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private final ReentrantLock mapLock = new ReentrantLock();
+
+    // Guarded by indexLock: the records indexed so far and the index itself
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private long indexed;
+    private final RecordList[] byOutcome = newLists(3);
+    private final RecordList[] byUpcard = newLists(Card.RANKS);
+    private final RecordList[] byPlayerTotal = newLists(MAX_TOTAL);
+    private final Map<Integer, RecordList> bySession = new HashMap<>();
+    private int lastSession = -1;
+    private RecordList lastSessionRecords;
+
+    // Only touched by the flusher, and by close once the flusher has stopped
+    private long synced;
+
+    /**
+     * Opens a log for appending, loading its index if one was saved.
+     *
+     * @param file The log file; the index is kept beside it with an ".idx" suffix.
+     * @param syncBatch The number of records written between each force to disk.
+     * @throws IOException If the file cannot be opened or holds a log of another format.
+     */
+    public HandHistoryLog(File file, int syncBatch) throws IOException {
+        if (syncBatch < 1) {
+            throw new IllegalArgumentException("Sync batch must be at least 1: " + syncBatch);
+        }
+        this.syncBatch = syncBatch;
+        indexFile = new File(file.getPath() + ".idx");
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        readHeader();
+
+        indexed = recover(readIndex());
+        synced = indexed;
+        nextRecord.set(indexed);
+        chunk(chunkOf(indexed));
+        flusher = Thread.ofPlatform().name("hand-history-flusher").daemon(true).start(this::flushLoop);
+    }
+
+    /**
+     * Writes the header of a new log, or checks the header of an existing one.
+     *
+     * @throws IOException If the file holds something other than a log of this format.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() == 0) {
+            header.putInt(0, LOG_MAGIC).putInt(4, LOG_VERSION).putInt(8, RECORD_SIZE);
+            channel.write(header, 0);
+            return;
+        }
+        channel.read(header, 0);
+        if (header.getInt(0) != LOG_MAGIC || header.getInt(4) != LOG_VERSION || header.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not a hand history log of version " + LOG_VERSION);
+        }
+    }
+
+    /**
+     * Indexes any records written after the index was last saved, as happens when the process stops
+     * without closing the log, and trims the unused tail of the last mapped chunk. A real record always
+     * holds at least two player cards, so the first record with none marks the end of the log.
+     *
+     * @param indexed The number of records the saved index covers.
+     * @return The number of records in the log.
+     * @throws IOException If the log cannot be read.
+     */
+    private long recover(long indexed) throws IOException {
+        long count = indexed;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (offsetOf(count) + RECORD_SIZE <= channel.size()) {
+            buffer.clear();
+            channel.read(buffer, offsetOf(count));
+            if (buffer.get(COUNTS_OFFSET) == 0) {
+                break;
+            }
+            index(count++, buffer.getInt(0), buffer.get(12), buffer.get(13), buffer.get(14));
+        }
+        channel.truncate(offsetOf(count));
+        return count;
+    }
+
+    /**
+     * Adds one record to the side index. The caller holds the index lock, or owns the log outright.
+     *
+     * @param record The record number.
+     * @param session The session id.
+     * @param outcome The result code.
+     * @param upcard The dealer's upcard.
+     * @param playerTotal The player's final hand value.
+     */
+    private void index(long record, int session, int outcome, int upcard, int playerTotal) {
+        byOutcome[outcome].add(record);
+        byUpcard[Card.rank(upcard)].add(record);
+        byPlayerTotal[Math.min(playerTotal, MAX_TOTAL - 1)].add(record);
+
+        // Rounds from one session tend to arrive together, so skip the map lookup while it repeats
+        if (session != lastSession || lastSessionRecords == null) {
+            lastSession = session;
+            lastSessionRecords = bySession.computeIfAbsent(session, key -> new RecordList());
+        }
+        lastSessionRecords.add(record);
+    }
+
+    /**
+     * Checks up front that the log has room for a run's rounds, so a long run cannot fill it partway.
+     *
+     * @param rounds The number of rounds about to be appended.
+     * @throws IllegalArgumentException If the rounds would take the log past {@link #MAX_RECORDS}.
+     */
+    public void ensureCapacity(long rounds) {
+        long records = nextRecord.get();
+        if (rounds > MAX_RECORDS - records) {
+            throw new IllegalArgumentException("A hand history log holds " + MAX_RECORDS + " rounds; it has "
+                    + records + " and cannot take " + rounds + " more");
+        }
+    }
+
+    /**
+     * Appends one finished round to the log. Any number of threads may append at once; none of them
+     * takes a lock or waits on the disk.
+     *
+     * @param session The session the round belongs to.
+     * @param round The round number within the session.
+     * @param bet The amount bet.
+     * @param outcome The result code of the round.
+     * @param playerHand The player's final hand.
+     * @param dealerHand The dealer's final hand.
+     * @throws IOException If the log is closed or cannot grow.
+     */
+    public void append(int session, int round, int bet, int outcome, Hand playerHand, Hand dealerHand) throws IOException {
+        int playerCards = playerHand.size();
+        int dealerCards = dealerHand.size();
+        if (playerCards > PLAYER_CARDS || dealerCards > DEALER_CARDS) {
+            throw new IllegalArgumentException("Hand too large to record: " + playerCards + " and " + dealerCards + " cards");
+        }
+        if (closing) {
+            throw new IOException("Hand history log is closed");
+        }
+
+        long record = nextRecord.getAndIncrement();
+        if (record >= MAX_RECORDS) {
+            throw new IOException("Hand history log is full");
+        }
+        MappedByteBuffer chunk = chunk(chunkOf(record));
+        int position = positionOf(record);
+        chunk.putInt(position, session);
+        chunk.putInt(position + 4, round);
+        chunk.putInt(position + 8, bet);
+        chunk.put(position + 12, (byte) outcome);
+        chunk.put(position + 13, (byte) dealerHand.card(0));
+        chunk.put(position + 14, (byte) playerHand.value());
+        chunk.put(position + 15, (byte) dealerHand.value());
+        for (int i = 0; i < playerCards; i++) {
+            chunk.put(position + PLAYER_CARDS_OFFSET + i, (byte) playerHand.card(i));
+        }
+        for (int i = 0; i < dealerCards; i++) {
+            chunk.put(position + DEALER_CARDS_OFFSET + i, (byte) dealerHand.card(i));
+        }
+
+        // The counts go in last, so a reader that sees them sees the whole record
+        INT.setRelease(chunk, position + COUNTS_OFFSET, playerCards | dealerCards << 8);
+
+        if ((record + 1) % syncBatch == 0) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Finds the mapped chunk with the given number, mapping it if no thread has yet. Mapping happens
+     * once per {@value #RECORDS_PER_CHUNK} records, and the flusher maps ahead, so producers rarely get here.
+     *
+     * @param number The chunk number.
+     * @return The mapped chunk.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private MappedByteBuffer chunk(int number) throws IOException {
+        MappedByteBuffer[] chunks = this.chunks;
+        if (number < chunks.length && chunks[number] != null) {
+            return chunks[number];
+        }
+
+        mapLock.lock();
+        try {
+            chunks = this.chunks;
+            if (number < chunks.length && chunks[number] != null) {
+                return chunks[number];
+            }
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, number * MAP_CHUNK, MAP_CHUNK);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            MappedByteBuffer[] grown = Arrays.copyOf(chunks, Math.max(chunks.length, number + 1));
+            grown[number] = chunk;
+            this.chunks = grown;
+            return chunk;
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    /**
+     * Finds a record's chunk without mapping it.
+     *
+     * @param number The chunk number.
+     * @return The chunk, or null if it is not mapped.
+     */
+    private MappedByteBuffer mappedChunk(int number) {
+        MappedByteBuffer[] chunks = this.chunks;
+        return number < chunks.length ? chunks[number] : null;
+    }
+
+    /**
+     * Works out which chunk holds a record; the header takes the first record's slot.
+     *
+     * @param record The record number.
+     * @return The chunk number.
+     */
+    private static int chunkOf(long record) {
+        return Math.toIntExact((record + 1) / RECORDS_PER_CHUNK);
+    }
+
+    /**
+     * Works out where a record sits within its chunk.
+     *
+     * @param record The record number.
+     * @return The byte position within the chunk.
+     */
+    private static int positionOf(long record) {
+        return (int) ((record + 1) % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+
+    /**
+     * Works out where a record sits in the file.
+     *
+     * @param record The record number.
+     * @return The file offset.
+     */
+    private static long offsetOf(long record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    /**
+     * Runs the flusher: indexes newly published records, forces them to disk once a batch has built
+     * up or the log has been idle for a while, and maps the next chunk before producers need it.
+     */
+    private void flushLoop() {
+        long lastForce = System.nanoTime();
+        while (true) {
+            boolean stopping = closing;
+            try {
+                long ready = drain();
+                long now = System.nanoTime();
+                if (ready - synced >= syncBatch || (ready > synced && now - lastForce >= FLUSH_INTERVAL_NANOS) || stopping) {
+                    force(ready);
+                    lastForce = now;
+                }
+                if (!stopping) {
+                    chunk(chunkOf(nextRecord.get()) + 1);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Hand history flush failed: " + e.getMessage());
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * Indexes every record published since the last call, stopping at the first one still being written.
+     *
+     * @return The number of records indexed so far.
+     */
+    private long drain() {
+        indexLock.lock();
+        try {
+            long reserved = nextRecord.get();
+            while (indexed < reserved) {
+                MappedByteBuffer chunk = mappedChunk(chunkOf(indexed));
+                if (chunk == null) {
+                    break;
+                }
+                int position = positionOf(indexed);
+                if ((int) INT.getAcquire(chunk, position + COUNTS_OFFSET) == 0) {
+                    break;
+                }
+                index(indexed, chunk.getInt(position), chunk.get(position + 12), chunk.get(position + 13), chunk.get(position + 14));
+                indexed++;
+            }
+            return indexed;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the records up to the given one to disk and drops the chunks that are now entirely on disk.
+     *
+     * @param limit The number of records that should be on disk.
+     */
+    private void force(long limit) {
+        if (limit <= synced) {
+            return;
+        }
+        int first = chunkOf(synced);
+        int last = chunkOf(Math.max(synced, limit - 1));
+        for (int number = first; number <= last; number++) {
+            MappedByteBuffer chunk = mappedChunk(number);
+            if (chunk != null) {
+                int from = number == first ? positionOf(synced) : 0;
+                int to = number == last ? positionOf(Math.max(synced, limit - 1)) + RECORD_SIZE : (int) MAP_CHUNK;
+                chunk.force(from, to - from);
+            }
+        }
+        synced = limit;
+
+        // Every chunk before the one being written is finished, so release its mapping
+        if (first < chunkOf(synced)) {
+            mapLock.lock();
+            try {
+                MappedByteBuffer[] released = chunks.clone();
+                Arrays.fill(released, 0, Math.min(chunkOf(synced), released.length), null);
+                chunks = released;
+            } finally {
+                mapLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of records in the log.
+     *
+     * @return The record count.
+     */
+    public long size() {
+        return drain();
+    }
+
+    /**
+     * Finds the rounds with a given outcome.
+     *
+     * @param outcome The result code.
+     * @return The matching record numbers in log order.
+     */
+    public long[] findByOutcome(int outcome) {
+        drain();
+        indexLock.lock();
+        try {
+            return byOutcome[outcome].toArray();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the rounds in which the dealer showed a card of the given rank.
+     *
+     * @param upcardRank The rank index of the dealer's upcard.
+     * @return The matching record numbers in log order.
+     */
+    public long[] findByUpcard(int upcardRank) {
+        drain();
+        indexLock.lock();
+        try {
+            return byUpcard[upcardRank].toArray();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the rounds in which the player finished on the given total.
+     *
+     * @param playerTotal The player's final hand value.
+     * @return The matching record numbers in log order.
+     */
+    public long[] findByPlayerTotal(int playerTotal) {
+        drain();
+        indexLock.lock();
+        try {
+            return byPlayerTotal[Math.min(playerTotal, MAX_TOTAL - 1)].toArray();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the rounds played in a session.
+     *
+     * @param session The session id.
+     * @return The matching record numbers in log order.
+     */
+    public long[] findBySession(int session) {
+        drain();
+        indexLock.lock();
+        try {
+            RecordList list = bySession.get(session);
+            return list == null ? new long[0] : list.toArray();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Reads one record back from the log.
+     *
+     * @param record The record number.
+     * @return The record's 64 bytes.
+     * @throws IOException If the record cannot be read.
+     */
+    public byte[] read(long record) throws IOException {
+        if (record < 0 || record >= drain()) {
+            throw new IndexOutOfBoundsException("No record " + record);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        channel.read(buffer, offsetOf(record));
+        return buffer.array();
+    }
+
+    /**
+     * Stops the flusher once it has indexed and forced every record, then trims the file to its
+     * records and saves the index. Every producer must have finished appending.
+     *
+     * @throws IOException If the log cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the hand history log");
+        }
+
+        indexLock.lock();
+        try {
+            chunks = new MappedByteBuffer[0];
+            channel.truncate(offsetOf(indexed));
+            channel.close();
+            writeIndex();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the saved index. The index is only written on a clean close, so it may cover fewer records
+     * than the log; without one, the whole log is indexed by {@link #recover(long)}.
+     *
+     * @return The number of records the index covers.
+     * @throws IOException If the index cannot be read.
+     */
+    private long readIndex() throws IOException {
+        if (!indexFile.exists()) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                throw new IOException("Not a hand history index: " + indexFile);
+            }
+            long count = in.readLong();
+            for (RecordList list : byOutcome) {
+                list.read(in);
+            }
+            for (RecordList list : byUpcard) {
+                list.read(in);
+            }
+            for (RecordList list : byPlayerTotal) {
+                list.read(in);
+            }
+            int sessions = in.readInt();
+            for (int i = 0; i < sessions; i++) {
+                RecordList list = new RecordList();
+                bySession.put(in.readInt(), list);
+                list.read(in);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Saves the index beside the log, writing a temporary file first so a crash never leaves a torn index.
+     *
+     * @throws IOException If the index cannot be written.
+     */
+    private void writeIndex() throws IOException {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(indexed);
+            for (RecordList list : byOutcome) {
+                list.write(out);
+            }
+            for (RecordList list : byUpcard) {
+                list.write(out);
+            }
+            for (RecordList list : byPlayerTotal) {
+                list.write(out);
+            }
+            out.writeInt(bySession.size());
+            for (Map.Entry<Integer, RecordList> entry : bySession.entrySet()) {
+                out.writeInt(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+        Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Creates an array of empty record lists.
+     *
+     * @param count The number of lists.
+     * @return The lists.
+     */
+    private static RecordList[] newLists(int count) {
+        RecordList[] lists = new RecordList[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = new RecordList();
+        }
+        return lists;
+    }
+
+    /**
+     * A growable list of record numbers in a primitive array. Record numbers are stored as ints, which
+     * covers {@link #MAX_RECORDS} at half the memory of longs.
+     */
+    private static class RecordList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, (int) Math.min((long) size * 2, MAX_RECORDS));
+            }
+            values[size++] = (int) value;
+        }
+
+        long[] toArray() {
+            long[] records = new long[size];
+            for (int i = 0; i < size; i++) {
+                records[i] = values[i];
+            }
+            return records;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            values = new int[Math.max(16, count)];
+            for (int i = 0; i < count; i++) {
+                values[i] = in.readInt();
+            }
+            size = count;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The HouseEdgeSimulator class measures the house edge of a {@link RuleSet} by playing many headless
+ * rounds on a fork/join pool. Each chunk deals to a {@link MultiSeatTable} of one or more seats sharing
+ * one shoe and one dealer. The hands are split into fixed-size chunks, each with its own shoe and its
+ * own generator of the chosen {@link ShoeRandom} kind, split or jumped off in a fixed order, so a given
+ * seed always produces the same result no matter how many threads run the simulation. Given a {@link HandHistoryLog}, each chunk
+ * logs its hands under its own session id, and given a {@link ResultExporter} each chunk streams its
+ * rounds through its own sink.
+ */
+public class HouseEdgeSimulator {
+    /** The number of hands one task plays before it stops splitting. */
+    private static final long CHUNK_HANDS = 1 << 16;
+
+    private final RuleSet rules;
+    private final PlayerStrategy strategy;
+    private int seats = 1;
+    private ShoeRandom shoeRandom = ShoeRandom.SPLITTABLE;
+    private HandHistoryLog history;
+    private ResultExporter exporter;
+
+    /**
+     * Constructs a simulator for the given shoe configuration and playing strategy under the default rules.
+     *
+     * @param decks The number of decks in each shoe.
+     * @param penetration The fraction of each shoe dealt before reshuffling.
+     * @param strategy The strategy making the player's decisions.
+     */
+    public HouseEdgeSimulator(int decks, double penetration, PlayerStrategy strategy) {
+        this(RuleSet.DEFAULT.withDecks(decks).withPenetration(penetration), strategy);
+    }
+
+    /**
+     * Constructs a simulator for the given rules and playing strategy.
+     *
+     * @param rules The rules of the game, including the shoe configuration.
+     * @param strategy The strategy making the player's decisions.
+     */
+    public HouseEdgeSimulator(RuleSet rules, PlayerStrategy strategy) {
+        this.rules = rules;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Sets the number of seats at each simulated table. Every seat plays the same strategy against one
+     * dealer, so a round yields that many hands.
+     *
+     * @param seats The seat count, from 1 to {@link MultiSeatTable#MAX_SEATS}.
+     */
+    public void setSeats(int seats) {
+        if (seats < 1 || seats > MultiSeatTable.MAX_SEATS) {
+            throw new IllegalArgumentException("A table has 1 to " + MultiSeatTable.MAX_SEATS + " seats: " + seats);
+        }
+        this.seats = seats;
+    }
+
+    /**
+     * Sets the kind of generator every chunk's shoe shuffles with. With {@link ShoeRandom#SECURE} the
+     * chunks are not derived from the seed, so runs are not reproducible.
+     *
+     * @param shoeRandom The generator choice.
+     */
+    public void setRandom(ShoeRandom shoeRandom) {
+        this.shoeRandom = shoeRandom;
+    }
+
+    /**
+     * Sets the log every simulated hand is appended to.
+     *
+     * @param history The log, or null to keep no history.
+     */
+    public void setHistory(HandHistoryLog history) {
+        this.history = history;
+    }
+
+    /**
+     * Sets the exporter every simulated round is streamed to.
+     *
+     * @param exporter A round exporter, or null to export nothing.
+     */
+    public void setExporter(ResultExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Plays the given number of hands on the common fork/join pool.
+     *
+     * @param hands The number of hands to play.
+     * @param seed The seed the whole run is derived from.
+     * @return The combined result.
+     */
+    public SimulationResult run(long hands, long seed) {
+        return run(hands, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the given number of hands on the given fork/join pool.
+     *
+     * @param hands The number of hands to play.
+     * @param seed The seed the whole run is derived from.
+     * @param pool The pool to run the tasks on.
+     * @return The combined result.
+     * @throws IllegalArgumentException If the hand history log has no room for the hands.
+     */
+    public SimulationResult run(long hands, long seed, ForkJoinPool pool) {
+        if (history != null) {
+            history.ensureCapacity(hands);
+        }
+        return pool.invoke(new SimulationTask(hands, shoeRandom.create(seed), 1));
+    }
+
+    /**
+     * Plays a chunk of hands with its own shoe. The last round's extra seats are not counted when the
+     * hand count does not divide evenly between the seats.
+     *
+     * @param hands The number of hands to play.
+     * @param random The random stream owned by this chunk.
+     * @param session The id the chunk's hands are logged under.
+     * @return The chunk's result.
+     */
+    private SimulationResult playHands(long hands, RandomGenerator random, int session) {
+        RuleSet rules = this.rules;
+        MultiSeatTable table = new MultiSeatTable(rules.newShoe(random), rules, seats);
+        Hand dealerHand = table.getDealerHand();
+        SimulationResult result = new SimulationResult();
+        ResultExporter.Sink sink = exporter != null ? exporter.newSink() : null;
+
+        long played = 0;
+        for (int round = 0; played < hands; round++) {
+            table.playRound(strategy);
+            for (int seat = 0; seat < seats && played < hands; seat++, played++) {
+                Hand playerHand = table.getSeatHand(seat);
+                int outcome = table.getResult(seat);
+                result.record(outcome, rules.payout(outcome, playerHand), playerHand, dealerHand);
+                if (sink != null) {
+                    sink.round(session, round, 1, outcome, playerHand, dealerHand);
+                }
+                if (history != null) {
+                    try {
+                        history.append(session, round, 1, outcome, playerHand, dealerHand);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            result.endRound();
+            table.resetRound();
+        }
+        if (sink != null) {
+            sink.close();
+        }
+        EngineMetrics.get().roundsFinished(hands);
+        return result;
+    }
+
+    /**
+     * Counts the chunks a task of the given size ends up playing in.
+     *
+     * @param hands The number of hands in the task.
+     * @return The number of chunks.
+     */
+    private static long chunks(long hands) {
+        return hands <= CHUNK_HANDS ? 1 : chunks(hands / 2) + chunks(hands - hands / 2);
+    }
+
+    /**
+     * A task that halves its range of hands until each half fits in one chunk. The random stream for
+     * each half is divided off before forking, so the streams depend only on the range, not on scheduling.
+     * Tasks are numbered like a binary heap, root 1, so every chunk has a distinct logged session id.
+     */
+    private class SimulationTask extends RecursiveTask<SimulationResult> {
+        private final long hands;
+        private final RandomGenerator random;
+        private final int chunk;
+
+        SimulationTask(long hands, RandomGenerator random, int chunk) {
+            this.hands = hands;
+            this.random = random;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (hands <= CHUNK_HANDS) {
+                return playHands(hands, random, chunk);
+            }
+
+            long half = hands / 2;
+            RandomGenerator[] halves = shoeRandom.halves(random, chunks(half));
+            SimulationTask left = new SimulationTask(half, halves[0], chunk * 2);
+            SimulationTask right = new SimulationTask(hands - half, halves[1], chunk * 2 + 1);
+            left.fork();
+            SimulationResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+
+    /**
+     * Runs the simulator from the command line and prints the report.
+     *
+     * @param args Optional hand count, deck count, seed, thread count, strategy ("optimal" or "dealer"),
+     *             hand history file ("-" for none), rule list for {@link RuleSet#parse(String)} ("" for the
+     *             default rules), round export file ("-" for none), seats per table and shoe generator
+     *             for {@link ShoeRandom#parse(String)}.
+     * @throws IOException If the hand history or export file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        long hands = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean dealerRules = args.length > 4 && args[4].equals("dealer");
+        RuleSet rules = (args.length > 6 ? RuleSet.parse(args[6]) : RuleSet.DEFAULT).withDecks(decks);
+
+        PlayerStrategy strategy = dealerRules ? PlayerStrategy.DEALER_RULES : StrategyTable.forRules(rules);
+        HouseEdgeSimulator simulator = new HouseEdgeSimulator(rules, strategy);
+        EngineMetrics.register();
+        HandHistoryLog history = args.length > 5 && !args[5].equals("-") ? new HandHistoryLog(new File(args[5]), HandHistoryLog.DEFAULT_SYNC_BATCH) : null;
+        simulator.setHistory(history);
+        simulator.setSeats(args.length > 8 ? Integer.parseInt(args[8]) : 1);
+        ShoeRandom shoeRandom = args.length > 9 ? ShoeRandom.parse(args[9]) : ShoeRandom.SPLITTABLE;
+        simulator.setRandom(shoeRandom);
+        ResultExporter exporter = args.length > 7 && !args[7].equals("-") ? ResultExporter.forRounds(new File(args[7])) : null;
+        simulator.setExporter(exporter);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        long start = System.nanoTime();
+        SimulationResult result = simulator.run(hands, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        if (history != null) {
+            history.close();
+            System.out.println("Hand history: " + history.size() + " rounds in " + args[5]);
+        }
+        if (exporter != null) {
+            exporter.close();
+            System.out.printf("Exported %d rounds to %s (producers waited %.1f ms)%n",
+                    exporter.getRows(), args[7], exporter.getStallNanos() / 1e6);
+        }
+
+        System.out.println(result);
+        System.out.printf("Seed: %d, Decks: %d, Threads: %d, Strategy: %s%n", seed, decks, threads, dealerRules ? "dealer" : "optimal");
+        System.out.println("Rules: " + rules + ", Seats: " + simulator.seats + ", Random: " + shoeRandom.getAlgorithm());
+        System.out.printf("Time: %.2fs (%.0f hands/s)%n", seconds, hands / seconds);
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LoadTestClient class stands in for many simultaneous players against a {@link TableServer}.
+ * Each simulated player runs on its own virtual thread with its own connection, plays a fixed number
+ * of rounds hitting below 17, and records the round-trip latency of every action. All players
+ * connect before any of them starts, so the measured latency is under full concurrency.
+ */
+public class LoadTestClient {
+    private static final int BET = 10;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Plays the given number of rounds with each simulated player.
+     *
+     * @param port The server port on the loopback interface.
+     * @param players The number of simultaneous players.
+     * @param rounds The number of rounds each player plays.
+     * @throws InterruptedException If interrupted while waiting for the players.
+     */
+    public void run(int port, int players, int rounds) throws InterruptedException {
+        CountDownLatch connected = new CountDownLatch(players);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(players);
+
+        for (int i = 0; i < players; i++) {
+            threads.add(Thread.ofVirtual().start(() -> play(port, rounds, connected, start)));
+        }
+        connected.await();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Runs one simulated player.
+     *
+     * @param port The server port.
+     * @param rounds The number of rounds to play.
+     * @param connected Counted down once this player is connected.
+     * @param start Released once every player is connected.
+     */
+    private void play(int port, int rounds, CountDownLatch connected, CountDownLatch start) {
+        boolean counted = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            connected.countDown();
+            counted = true;
+            start.await();
+
+            for (int round = 0; round < rounds; round++) {
+                String reply = send(in, out, "BET " + BET);
+                while (reply.startsWith("DEALT") || reply.startsWith("CARD")) {
+                    reply = send(in, out, playerTotal(reply) < BlackjackEngine.DEALER_STANDS_ON ? "HIT" : "STAND");
+                }
+                if (!reply.startsWith("RESULT")) {
+                    errors.incrementAndGet();
+                }
+            }
+            send(in, out, "QUIT");
+        } catch (IOException | InterruptedException e) {
+            errors.incrementAndGet();
+        } finally {
+            if (!counted) {
+                connected.countDown();
+            }
+        }
+    }
+
+    /**
+     * Sends one command and times the reply.
+     *
+     * @param in The connection's reader.
+     * @param out The connection's writer.
+     * @param command The command line.
+     * @return The reply line.
+     * @throws IOException If the connection fails.
+     */
+    private String send(BufferedReader in, Writer out, String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        latency.record(System.nanoTime() - start);
+        if (reply == null) {
+            throw new EOFException("Server closed the connection");
+        }
+        return reply;
+    }
+
+    /**
+     * Extracts the player's total from a DEALT or CARD reply.
+     *
+     * @param reply The reply line.
+     * @return The player's hand value.
+     */
+    private static int playerTotal(String reply) {
+        int start = reply.indexOf("player=") + "player=".length();
+        int end = reply.indexOf(' ', start);
+        return Integer.parseInt(reply.substring(start, end < 0 ? reply.length() : end));
+    }
+
+    /**
+     * Runs a load test from the command line. Without a port, a server is started in this process.
+     *
+     * @param args Optional player count, rounds per player and server port.
+     * @throws IOException If the in-process server cannot start.
+     * @throws InterruptedException If interrupted while waiting for the players.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        TableServer server = args.length > 2 ? null : new TableServer(0, 1);
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : server.getPort();
+
+        LoadTestClient client = new LoadTestClient();
+        long start = System.nanoTime();
+        client.run(port, players, rounds);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (server != null) {
+            server.close();
+        }
+        long actions = client.latency.getCount();
+        System.out.printf("Players: %d, Rounds: %d, Actions: %d, Errors: %d%n", players, (long) players * rounds, actions, client.errors.get());
+        System.out.printf("Time: %.2fs (%.0f actions/s)%n", seconds, actions / seconds);
+        System.out.println("Latency: " + client.latency);
+    }
+}
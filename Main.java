@@ -1,11 +1,35 @@
+import java.util.concurrent.CompletableFuture;
+
 //TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
 // click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
 public class Main
 {
     public static void main(String[] args)
     {
+        StartupTimer.get().mark(StartupTimer.MAIN);
+
+        // Decode the welcome background and card images while the rest of startup runs
+        CompletableFuture<Void> assets = BlackjackGUI.preloadAssets();
+
+        // Report how long each startup phase took when run with -Dblackjack.startup=true
+        if (Boolean.getBoolean("blackjack.startup")) {
+            CompletableFuture.allOf(assets, BlackjackGUI.whenInteractive())
+                    .thenRun(() -> System.out.println("Startup: " + StartupTimer.get()));
+        }
+
+        // Publish the live engine and UI measurements for JConsole or VisualVM
+        EngineMetrics.register();
+
         BlackjackGame blackjackGame = new BlackjackGame();
+        StartupTimer.get().mark(StartupTimer.GAME_READY);
         BlackjackGUI blackjackGUI = new BlackjackGUI(blackjackGame);
+
+        // Report input-to-paint latency on exit when run with -Dblackjack.latency=true
+        if (Boolean.getBoolean("blackjack.latency")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    System.out.println("Input-to-paint latency: " + blackjackGUI.getPaintLatency())));
+        }
+
         blackjackGUI.setVisible(true);
     }
-}
\ No newline at end of file
+}
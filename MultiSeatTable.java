@@ -0,0 +1,167 @@
+/**
+ * The MultiSeatTable class plays rounds for up to seven seats against one dealer and one shared
+ * {@link Shoe}, the way cards flow at a real table: one card to each seat from left to right, the
+ * dealer's upcard, a second card to each seat, then the dealer's hole card. Seats act in order, the
+ * dealer draws once for the whole table, and every seat still standing is settled in one pass over
+ * the {@link RuleSet}'s outcome table. With one seat a round deals and resolves exactly like
+ * {@link BlackjackEngine#playRound(PlayerStrategy)}.
+ */
+public class MultiSeatTable {
+    /** The most seats a table has. */
+    public static final int MAX_SEATS = 7;
+
+    private final Shoe shoe;
+    private final RuleSet rules;
+    private final Hand[] seatHands;
+    private final int[] results;
+    private final Hand dealerHand;
+    private boolean dealerPlayed;
+
+    /**
+     * Constructs a table dealing from the given shoe.
+     *
+     * @param shoe The shoe every seat is dealt from.
+     * @param rules The rules of the game.
+     * @param seats The number of seats, from 1 to {@link #MAX_SEATS}.
+     */
+    public MultiSeatTable(Shoe shoe, RuleSet rules, int seats) {
+        if (seats < 1 || seats > MAX_SEATS) {
+            throw new IllegalArgumentException("A table has 1 to " + MAX_SEATS + " seats: " + seats);
+        }
+        this.shoe = shoe;
+        this.rules = rules;
+        seatHands = new Hand[seats];
+        for (int i = 0; i < seats; i++) {
+            seatHands[i] = rules.newHand();
+        }
+        results = new int[seats];
+        dealerHand = rules.newHand();
+    }
+
+    /**
+     * Plays a whole round headless with every seat following the same strategy. The hands and results
+     * are left in place so the caller can inspect them before calling {@link #resetRound()}.
+     *
+     * @param strategy The strategy making every seat's decisions.
+     */
+    public void playRound(PlayerStrategy strategy) {
+        Hand[] seatHands = this.seatHands;
+        int[] results = this.results;
+        Hand dealerHand = this.dealerHand;
+
+        // Casino order: a card to each seat, the upcard, a second card to each seat, the hole card
+        for (Hand hand : seatHands) {
+            hand.add(shoe.deal());
+        }
+        dealerHand.add(shoe.deal());
+        for (Hand hand : seatHands) {
+            hand.add(shoe.deal());
+        }
+        dealerHand.add(shoe.deal());
+
+        // Each seat plays out its hand; blackjacks and busts are settled on the spot
+        int upcard = dealerHand.card(0);
+        boolean anyStanding = false;
+        for (int seat = 0; seat < seatHands.length; seat++) {
+            Hand hand = seatHands[seat];
+            int result = rules.outcome(hand, dealerHand, false);
+            while (result == BlackjackEngine.IN_PROGRESS && strategy.shouldHit(hand, upcard)) {
+                hand.add(shoe.deal());
+                result = rules.outcome(hand, dealerHand, false);
+            }
+            results[seat] = result;
+            anyStanding |= result == BlackjackEngine.IN_PROGRESS;
+        }
+
+        // The dealer plays once for the whole table, and only if a seat is still waiting on the outcome
+        if (anyStanding) {
+            while (rules.dealerDraws(dealerHand)) {
+                dealerHand.add(shoe.deal());
+            }
+            dealerPlayed = true;
+            for (int seat = 0; seat < seatHands.length; seat++) {
+                if (results[seat] == BlackjackEngine.IN_PROGRESS) {
+                    results[seat] = rules.outcome(seatHands[seat], dealerHand, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears every hand for a new round, re-shuffling the shoe once the cut card has come out.
+     */
+    public void resetRound() {
+        shoe.shuffleIfNeeded();
+
+        for (Hand hand : seatHands) {
+            hand.clear();
+        }
+        dealerHand.clear();
+        dealerPlayed = false;
+    }
+
+    /**
+     * Retrieves the number of seats at the table.
+     *
+     * @return The seat count.
+     */
+    public int getSeats() {
+        return seatHands.length;
+    }
+
+    /**
+     * Retrieves one seat's hand. The hand is owned by the table and changes as the round is played.
+     *
+     * @param seat The seat, from 0 at the dealer's left.
+     * @return The seat's hand.
+     */
+    public Hand getSeatHand(int seat) {
+        return seatHands[seat];
+    }
+
+    /**
+     * Retrieves the result of one seat's finished round.
+     *
+     * @param seat The seat, from 0 at the dealer's left.
+     * @return {@link BlackjackEngine#DEALER_WINS}, {@link BlackjackEngine#PLAYER_WINS} or {@link BlackjackEngine#TIE}.
+     */
+    public int getResult(int seat) {
+        return results[seat];
+    }
+
+    /**
+     * Retrieves the dealer's hand. The hand is owned by the table and changes as the round is played.
+     *
+     * @return The dealer's hand.
+     */
+    public Hand getDealerHand() {
+        return dealerHand;
+    }
+
+    /**
+     * Checks whether the dealer drew this round, which happens once any seat stands without a blackjack.
+     *
+     * @return True if the dealer played out their hand.
+     */
+    public boolean isDealerPlayed() {
+        return dealerPlayed;
+    }
+
+    /**
+     * Retrieves the shoe the table deals from.
+     *
+     * @return The shoe.
+     */
+    public Shoe getShoe() {
+        return shoe;
+    }
+
+    /**
+     * Retrieves the rules the table plays by.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,64 @@
+import javax.swing.*;
+
+/**
+ * The PaintLatencyMonitor class measures input-to-paint latency: the time from a user action on the
+ * event thread until the screen has been repainted with that action's result. It replaces Swing's
+ * repaint manager, so the measurement ends when the dirty regions are actually painted rather than
+ * when a repaint is merely requested. All methods run on the event thread.
+ */
+public class PaintLatencyMonitor extends RepaintManager {
+    private static PaintLatencyMonitor installed;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private long inputNanos;
+    private boolean updatesApplied;
+
+    /**
+     * Installs the monitor as Swing's repaint manager, or retrieves it if already installed.
+     *
+     * @return The installed monitor.
+     */
+    public static synchronized PaintLatencyMonitor install() {
+        if (installed == null) {
+            installed = new PaintLatencyMonitor();
+            RepaintManager.setCurrentManager(installed);
+        }
+        return installed;
+    }
+
+    /**
+     * Marks the moment a user action was received.
+     */
+    public void inputReceived() {
+        inputNanos = System.nanoTime();
+        updatesApplied = false;
+    }
+
+    /**
+     * Marks that the components now show the action's result, so the next paint completes the measurement.
+     */
+    public void updatesApplied() {
+        if (inputNanos != 0) {
+            updatesApplied = true;
+        }
+    }
+
+    @Override
+    public void paintDirtyRegions() {
+        super.paintDirtyRegions();
+        if (updatesApplied) {
+            histogram.record(System.nanoTime() - inputNanos);
+            inputNanos = 0;
+            updatesApplied = false;
+        }
+    }
+
+    /**
+     * Retrieves the recorded input-to-paint latencies.
+     *
+     * @return The latency histogram.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * The PlayerStats class is an immutable snapshot of one player's lifetime statistics: their high
+ * score, total hands won, highest bank and the results of the sessions they have cashed out of.
+ * Recording a session produces a new snapshot, so a snapshot can be handed to any thread.
+ */
+public final class PlayerStats {
+    private final String player;
+    private final int highScore;
+    private final long handsWon;
+    private final int highestBank;
+    private final int sessions;
+    private final long totalScore;
+    private final int lastScore;
+
+    /**
+     * Constructs a snapshot with the given values.
+     *
+     * @param player The player's name.
+     * @param highScore The best session score.
+     * @param handsWon The hands won across all sessions.
+     * @param highestBank The highest balance ever reached.
+     * @param sessions The number of sessions recorded.
+     * @param totalScore The sum of every session's score.
+     * @param lastScore The score of the most recent session.
+     */
+    public PlayerStats(String player, int highScore, long handsWon, int highestBank, int sessions, long totalScore, int lastScore) {
+        this.player = player;
+        this.highScore = highScore;
+        this.handsWon = handsWon;
+        this.highestBank = highestBank;
+        this.sessions = sessions;
+        this.totalScore = totalScore;
+        this.lastScore = lastScore;
+    }
+
+    /**
+     * Creates the statistics of a player who has not played yet.
+     *
+     * @param player The player's name.
+     * @return The empty statistics.
+     */
+    public static PlayerStats empty(String player) {
+        return new PlayerStats(player, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Adds one finished session to these statistics.
+     *
+     * @param score The session's score, the final balance minus the starting balance.
+     * @param sessionHandsWon The hands won in the session.
+     * @param sessionHighestBank The highest balance reached in the session.
+     * @return The updated statistics.
+     */
+    public PlayerStats withSession(int score, int sessionHandsWon, int sessionHighestBank) {
+        return new PlayerStats(player, Math.max(highScore, score), handsWon + sessionHandsWon,
+                Math.max(highestBank, sessionHighestBank), sessions + 1, totalScore + score, score);
+    }
+
+    /**
+     * Retrieves the player's name.
+     *
+     * @return The name
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Retrieves the best session score.
+     *
+     * @return The High Score
+     */
+    public int getHighScore() {
+        return highScore;
+    }
+
+    /**
+     * Retrieves the hands won across all sessions.
+     *
+     * @return The number of hands won
+     */
+    public long getHandsWon() {
+        return handsWon;
+    }
+
+    /**
+     * Retrieves the highest balance ever reached.
+     *
+     * @return The Highest Bank
+     */
+    public int getHighestBank() {
+        return highestBank;
+    }
+
+    /**
+     * Retrieves the number of sessions recorded.
+     *
+     * @return The session count
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Retrieves the sum of every session's score.
+     *
+     * @return The total score
+     */
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * Retrieves the score of the most recent session.
+     *
+     * @return The last score
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+}
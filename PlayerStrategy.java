@@ -0,0 +1,20 @@
+/**
+ * The PlayerStrategy interface decides whether a headless player hits or stands. Simulators and bots
+ * consult it after every card until the player stands, busts or the round ends.
+ */
+public interface PlayerStrategy {
+
+    /**
+     * A strategy that plays like the dealer, hitting until the hand is worth 17 or more.
+     */
+    PlayerStrategy DEALER_RULES = (playerHand, dealerUpcard) -> playerHand.value() < BlackjackEngine.DEALER_STANDS_ON;
+
+    /**
+     * Decides the player's next action.
+     *
+     * @param playerHand The player's current hand.
+     * @param dealerUpcard The dealer's face-up card.
+     * @return True to hit, false to stand.
+     */
+    boolean shouldHit(Hand playerHand, int dealerUpcard);
+}
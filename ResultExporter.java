@@ -0,0 +1,649 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The ResultExporter class streams simulation and server results to disk in a compact columnar
+ * binary file. Producers fill fixed-size blocks of primitive columns through their own {@link Sink},
+ * and hand each full block to a single writer thread over a bounded queue. The writer encodes a block
+ * column by column into a reused direct {@link ByteBuffer} and writes it with a {@link FileChannel},
+ * then returns the block for reuse. At most a fixed number of blocks ever exist, so memory stays flat
+ * however many rows are exported; the queue soaks up a briefly slow disk, and only a disk that stays
+ * slower than the producers makes them wait for a free block. Producers too slow to fill a block of
+ * their own, such as server tables, share one {@link SharedSink} instead.
+ *
+ * <p>File layout, little-endian:
+ * <pre>
+ * int    magic "BJRX"
+ * int    version
+ * int    column count
+ * per column: byte name length, ASCII name, byte width (1, 4 or 8)
+ * per block:  int row count, then each column's values in turn, width bytes each
+ * </pre>
+ * {@link #writeCsv(File, Appendable)} turns a file back into CSV rows.
+ */
+public class ResultExporter implements Closeable {
+    /** The columns of a round export: who played it, the bet, the outcome and both final hands. */
+    public static final String[] ROUND_COLUMNS = {
+            "session", "round", "bet", "outcome", "upcard", "player_total", "dealer_total", "player_cards", "dealer_cards"};
+    private static final int[] ROUND_WIDTHS = {4, 4, 4, 1, 1, 1, 1, 1, 1};
+
+    /** The columns of a session export: who played it, how long it lasted and how it ended. */
+    public static final String[] SESSION_COLUMNS = {
+            "chunk", "session", "rounds", "final_balance", "highest_bank", "hands_won", "end", "wagered"};
+    private static final int[] SESSION_WIDTHS = {4, 4, 4, 4, 4, 4, 1, 8};
+
+    /** Session end code for a session that reached its round limit. */
+    public static final int END_ROUND_LIMIT = 0;
+    /** Session end code for a session that ended in ruin. */
+    public static final int END_RUIN = 1;
+    /** Session end code for a session that reached the cash-out balance. */
+    public static final int END_CASH_OUT = 2;
+
+    /** The number of rows in one block. */
+    public static final int BLOCK_ROWS = 4096;
+    /** The default number of blocks that may exist at once, full or being filled; each producer holds one. */
+    public static final int DEFAULT_MAX_BLOCKS = Math.max(32, 2 * Runtime.getRuntime().availableProcessors());
+    /** The longest rows wait in a shared sink before the writer hands them over in a partly filled block. */
+    public static final long SHARED_FLUSH_MILLIS = 500;
+
+    private static final int MAGIC = 0x424A5258; // "BJRX"
+    private static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final String[] names;
+    private final int[] widths;
+    private final boolean roundLayout;
+    private final boolean sessionLayout;
+    private final int maxBlocks;
+    private final AtomicInteger blocks = new AtomicInteger();
+    private final BlockingQueue<Block> full;
+    private final BlockingQueue<Block> free;
+    private final ByteBuffer buffer;
+    private final Thread writer;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+    private final CopyOnWriteArrayList<SharedSink> sharedSinks = new CopyOnWriteArrayList<>();
+    private volatile IOException failure;
+    private boolean closed;
+
+    // Handed to the writer after the last block to tell it to stop
+    private static final Block END = new Block(0, 0);
+
+    /**
+     * Opens an exporter for rounds with the default number of blocks.
+     *
+     * @param file The file to write, replacing any existing file.
+     * @return The exporter.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static ResultExporter forRounds(File file) throws IOException {
+        return new ResultExporter(file, ROUND_COLUMNS, ROUND_WIDTHS, DEFAULT_MAX_BLOCKS);
+    }
+
+    /**
+     * Opens an exporter for sessions with the default number of blocks.
+     *
+     * @param file The file to write, replacing any existing file.
+     * @return The exporter.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static ResultExporter forSessions(File file) throws IOException {
+        return new ResultExporter(file, SESSION_COLUMNS, SESSION_WIDTHS, DEFAULT_MAX_BLOCKS);
+    }
+
+    /**
+     * Opens an exporter and starts its writer thread.
+     *
+     * @param file The file to write, replacing any existing file.
+     * @param names The column names.
+     * @param widths The width of each column in bytes: 1, 4 or 8.
+     * @param maxBlocks The most blocks that may exist at once, at least 2 and more than the number of
+     *                  sinks filling a block at the same time.
+     * @throws IOException If the file cannot be opened or the header written.
+     */
+    public ResultExporter(File file, String[] names, int[] widths, int maxBlocks) throws IOException {
+        if (names.length != widths.length || maxBlocks < 2) {
+            throw new IllegalArgumentException("Bad export layout: " + names.length + " names, " + widths.length
+                    + " widths, " + maxBlocks + " blocks");
+        }
+        int rowBytes = 0;
+        for (int width : widths) {
+            if (width != 1 && width != 4 && width != 8) {
+                throw new IllegalArgumentException("Column width must be 1, 4 or 8: " + width);
+            }
+            rowBytes += width;
+        }
+
+        this.names = names.clone();
+        this.widths = widths.clone();
+        roundLayout = Arrays.equals(names, ROUND_COLUMNS);
+        sessionLayout = Arrays.equals(names, SESSION_COLUMNS);
+        this.maxBlocks = maxBlocks;
+        full = new ArrayBlockingQueue<>(maxBlocks + 1);
+        free = new ArrayBlockingQueue<>(maxBlocks);
+        buffer = ByteBuffer.allocateDirect(Integer.BYTES + rowBytes * BLOCK_ROWS).order(ByteOrder.LITTLE_ENDIAN);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        writer = Thread.ofPlatform().name("result-exporter").daemon(true).start(this::writeLoop);
+    }
+
+    /**
+     * Writes the file header describing the columns.
+     *
+     * @throws IOException If the header cannot be written.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES + names.length * 257).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = names[i].getBytes(StandardCharsets.US_ASCII);
+            header.put((byte) name.length).put(name).put((byte) widths[i]);
+        }
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Creates a sink for one producer. A sink is owned by one thread at a time, takes a block when it
+     * writes its first row and must be closed to export its last, partly filled block.
+     *
+     * @return The sink.
+     */
+    public Sink newSink() {
+        return new Sink();
+    }
+
+    /**
+     * Creates a sink that any number of slow producers write through at once. It must be closed before
+     * the exporter to export its last rows.
+     *
+     * @return The shared sink.
+     */
+    public SharedSink newSharedSink() {
+        SharedSink sink = new SharedSink(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), maxBlocks / 4)));
+        sharedSinks.add(sink);
+        return sink;
+    }
+
+    /**
+     * Takes a block to fill, reusing a written one when possible and otherwise creating one while
+     * under the limit. Once every block is in use the caller waits for the writer to free one.
+     *
+     * @return The empty block.
+     */
+    private Block takeBlock() {
+        Block block = free.poll();
+        if (block != null) {
+            return block;
+        }
+        if (blocks.getAndIncrement() < maxBlocks) {
+            return new Block(widths.length, BLOCK_ROWS);
+        }
+        blocks.decrementAndGet();
+
+        long start = System.nanoTime();
+        try {
+            while ((block = free.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for export space"));
+        }
+        stallNanos.add(System.nanoTime() - start);
+        return block;
+    }
+
+    /**
+     * Queues a filled block for the writer.
+     *
+     * @param block The block.
+     */
+    private void submit(Block block) {
+        checkFailure();
+        rows.add(block.size);
+        full.add(block);
+    }
+
+    /**
+     * Rethrows a failure of the writer thread on the producer's thread.
+     */
+    private void checkFailure() {
+        IOException e = failure;
+        if (e != null) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes queued blocks until the end marker arrives, then forces the file to disk. Between blocks,
+     * and whenever the queue stays empty, it hands over the rows that have waited too long in a shared sink.
+     */
+    private void writeLoop() {
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(SHARED_FLUSH_MILLIS);
+        long lastSweep = System.nanoTime();
+        try {
+            Block block;
+            while ((block = full.poll(SHARED_FLUSH_MILLIS, TimeUnit.MILLISECONDS)) != END) {
+                if (block != null) {
+                    if (failure == null) {
+                        write(block);
+                    }
+                    block.size = 0;
+                    free.offer(block);
+                }
+                long now = System.nanoTime();
+                if (now - lastSweep >= flushNanos && failure == null) {
+                    for (SharedSink sink : sharedSinks) {
+                        sink.flushOlderThan(now - flushNanos);
+                    }
+                    lastSweep = now;
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Result export interrupted");
+        }
+    }
+
+    /**
+     * Encodes one block column by column into the direct buffer and writes it.
+     *
+     * @param block The block.
+     */
+    private void write(Block block) {
+        ByteBuffer buffer = this.buffer;
+        buffer.clear();
+        int size = block.size;
+        buffer.putInt(size);
+        for (int c = 0; c < widths.length; c++) {
+            long[] column = block.columns[c];
+            switch (widths[c]) {
+                case 1:
+                    for (int r = 0; r < size; r++) {
+                        buffer.put((byte) column[r]);
+                    }
+                    break;
+                case 4:
+                    for (int r = 0; r < size; r++) {
+                        buffer.putInt((int) column[r]);
+                    }
+                    break;
+                default:
+                    for (int r = 0; r < size; r++) {
+                        buffer.putLong(column[r]);
+                    }
+                    break;
+            }
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Retrieves the number of rows handed to the writer so far.
+     *
+     * @return The row count.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * Retrieves how long producers have spent waiting for a free block because the disk fell behind.
+     *
+     * @return The total wait in nanoseconds.
+     */
+    public long getStallNanos() {
+        return stallNanos.sum();
+    }
+
+    /**
+     * Waits for every submitted block to be written, then closes the file. Sinks should be closed first;
+     * rows still in an open sink are lost.
+     *
+     * @throws IOException If any block could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        full.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reads an export file and writes it as CSV with a header row.
+     *
+     * @param file The export file.
+     * @param out Where the CSV text is written.
+     * @throws IOException If the file cannot be read or is not an export file.
+     */
+    public static void writeCsv(File file, Appendable out) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            in.readFully(header.array());
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a result export: " + file);
+            }
+            int count = header.getInt(8);
+            String[] names = new String[count];
+            int[] widths = new int[count];
+            int rowBytes = 0;
+            for (int c = 0; c < count; c++) {
+                byte[] name = new byte[in.readUnsignedByte()];
+                in.readFully(name);
+                names[c] = new String(name, StandardCharsets.US_ASCII);
+                widths[c] = in.readUnsignedByte();
+                rowBytes += widths[c];
+            }
+            out.append(String.join(",", names)).append('\n');
+
+            byte[] bytes = new byte[rowBytes * BLOCK_ROWS];
+            ByteBuffer block = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            while (true) {
+                int size;
+                try {
+                    size = Integer.reverseBytes(in.readInt());
+                } catch (EOFException e) {
+                    break;
+                }
+                in.readFully(bytes, 0, size * rowBytes);
+
+                // Each column starts after the columns before it, all of them size rows long
+                for (int r = 0; r < size; r++) {
+                    int offset = 0;
+                    for (int c = 0; c < count; c++) {
+                        if (c > 0) {
+                            out.append(',');
+                        }
+                        int at = offset + r * widths[c];
+                        long value = widths[c] == 1 ? block.get(at) : widths[c] == 4 ? block.getInt(at) : block.getLong(at);
+                        out.append(Long.toString(value));
+                        offset += size * widths[c];
+                    }
+                    out.append('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints an export file as CSV, to a file if one is given and otherwise to standard output.
+     *
+     * @param args The export file and an optional CSV file.
+     * @throws IOException If either file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java ResultExporter <export file> [csv file]");
+            return;
+        }
+        if (args.length > 1) {
+            try (Writer out = new BufferedWriter(new FileWriter(args[1]))) {
+                writeCsv(new File(args[0]), out);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            writeCsv(new File(args[0]), out);
+            out.flush();
+        }
+    }
+
+    /**
+     * One block of rows, each column a primitive array.
+     */
+    private static class Block {
+        final long[][] columns;
+        int size;
+
+        Block(int columns, int rows) {
+            this.columns = new long[columns][rows];
+        }
+    }
+
+    /**
+     * One producer's way into the exporter. Rows are written straight into the sink's current block,
+     * which is handed to the writer once full or flushed. A sink only holds a block while it has rows
+     * waiting.
+     */
+    public class Sink implements Closeable {
+        private Block block;
+        private boolean closed;
+
+        /**
+         * Exports one finished round.
+         *
+         * @param session The id of the session or chunk the round was played in.
+         * @param round The round number within the session.
+         * @param bet The amount bet.
+         * @param outcome The result code.
+         * @param playerHand The player's final hand.
+         * @param dealerHand The dealer's final hand.
+         * @throws IllegalStateException If the exporter does not have the round layout, or the sink is closed.
+         */
+        public void round(int session, int round, int bet, int outcome, Hand playerHand, Hand dealerHand) {
+            if (!roundLayout) {
+                throw new IllegalStateException("Not a round export: " + String.join(",", names));
+            }
+            Block block = block();
+            long[][] columns = block.columns;
+            int r = block.size;
+            columns[0][r] = session;
+            columns[1][r] = round;
+            columns[2][r] = bet;
+            columns[3][r] = outcome;
+            columns[4][r] = dealerHand.card(0);
+            columns[5][r] = playerHand.value();
+            columns[6][r] = dealerHand.value();
+            columns[7][r] = playerHand.size();
+            columns[8][r] = dealerHand.size();
+            advance();
+        }
+
+        /**
+         * Exports one finished session.
+         *
+         * @param chunk The id of the chunk the session was played in.
+         * @param session The session number within the chunk.
+         * @param rounds The number of rounds played.
+         * @param finalBalance The balance the session ended with.
+         * @param highestBank The highest balance reached.
+         * @param handsWon The number of hands won.
+         * @param end {@link #END_ROUND_LIMIT}, {@link #END_RUIN} or {@link #END_CASH_OUT}.
+         * @param wagered The total of every bet placed.
+         * @throws IllegalStateException If the exporter does not have the session layout, or the sink is closed.
+         */
+        public void session(int chunk, int session, int rounds, int finalBalance, int highestBank, int handsWon,
+                            int end, long wagered) {
+            if (!sessionLayout) {
+                throw new IllegalStateException("Not a session export: " + String.join(",", names));
+            }
+            Block block = block();
+            long[][] columns = block.columns;
+            int r = block.size;
+            columns[0][r] = chunk;
+            columns[1][r] = session;
+            columns[2][r] = rounds;
+            columns[3][r] = finalBalance;
+            columns[4][r] = highestBank;
+            columns[5][r] = handsWon;
+            columns[6][r] = end;
+            columns[7][r] = wagered;
+            advance();
+        }
+
+        /**
+         * Retrieves the block being filled, taking one if the sink holds none.
+         *
+         * @return The block.
+         */
+        private Block block() {
+            Block block = this.block;
+            if (block == null) {
+                if (closed) {
+                    throw new IllegalStateException("Sink is closed");
+                }
+                block = takeBlock();
+                this.block = block;
+            }
+            return block;
+        }
+
+        /**
+         * Moves past the row just written, handing the block over once it is full.
+         */
+        private void advance() {
+            if (++block.size == BLOCK_ROWS) {
+                flush();
+            }
+        }
+
+        /**
+         * Hands the rows written so far to the writer, partly filled block and all.
+         */
+        public void flush() {
+            if (block != null) {
+                submit(block);
+                block = null;
+            }
+        }
+
+        /**
+         * Hands over the partly filled block and gives the sink up.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            flush();
+        }
+    }
+
+    /**
+     * A sink shared by many producers that each write a row only now and then, such as server tables
+     * whose rounds arrive at their players' pace. Rows are spread by session over a few striped sinks,
+     * each behind its own lock, so producers seldom meet and every stripe still fills whole blocks. The
+     * writer hands over any stripe whose oldest row has waited {@link #SHARED_FLUSH_MILLIS}, so a quiet
+     * server's rounds still reach the file.
+     */
+    public class SharedSink implements Closeable {
+        private final Stripe[] stripes;
+
+        SharedSink(int stripeCount) {
+            stripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        /**
+         * Exports one finished round through the stripe of its session.
+         *
+         * @param session The id of the session the round was played in.
+         * @param round The round number within the session.
+         * @param bet The amount bet.
+         * @param outcome The result code.
+         * @param playerHand The player's final hand.
+         * @param dealerHand The dealer's final hand.
+         * @throws IllegalStateException If the exporter does not have the round layout, or the sink is closed.
+         */
+        public void round(int session, int round, int bet, int outcome, Hand playerHand, Hand dealerHand) {
+            Stripe stripe = stripes[Math.floorMod(session, stripes.length)];
+            stripe.lock.lock();
+            try {
+                if (stripe.sink.block == null) {
+                    stripe.firstRowNanos = System.nanoTime();
+                }
+                stripe.sink.round(session, round, bet, outcome, playerHand, dealerHand);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        /**
+         * Hands over every stripe whose oldest row was written before the given time. A stripe whose
+         * producer holds its lock is skipped until the next sweep, so the writer never waits on a
+         * producer that may itself be waiting for the writer.
+         *
+         * @param cutoffNanos The {@link System#nanoTime()} before which rows are overdue.
+         */
+        void flushOlderThan(long cutoffNanos) {
+            for (Stripe stripe : stripes) {
+                if (stripe.lock.tryLock()) {
+                    try {
+                        if (stripe.sink.block != null && stripe.firstRowNanos - cutoffNanos <= 0) {
+                            stripe.sink.flush();
+                        }
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hands over every stripe's rows and gives the sink up.
+         */
+        @Override
+        public void close() {
+            sharedSinks.remove(this);
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    stripe.sink.close();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * One stripe of a shared sink: a sink, the lock its producers take turns under and when its oldest
+     * waiting row was written.
+     */
+    private class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Sink sink = new Sink();
+        long firstRowNanos;
+    }
+}
@@ -0,0 +1,433 @@
+import java.util.Locale;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * The RuleSet class describes one variant of the game's rules: whether the dealer hits a soft 17,
+ * whether a Five-Card Charlie (or a longer Charlie) wins, what a player blackjack pays, and the shoe's
+ * deck count and reshuffle point. A rule set is immutable, and on construction it compiles the
+ * dealer's drawing policy and the round resolution into lookup tables, so the engine plays any
+ * variant with the same branch-free table reads as the default rules.
+ */
+public final class RuleSet {
+    /** The fewest cards a Charlie may need. */
+    public static final int MIN_CHARLIE_CARDS = Hand.CHARLIE_CARDS;
+    /** The most cards a Charlie may need. */
+    public static final int MAX_CHARLIE_CARDS = 7;
+    /** The Charlie card count that turns the Charlie rule off. */
+    public static final int NO_CHARLIE = 0;
+
+    /** The rules of the original game: dealer stands on all 17s, Five-Card Charlie, even money, one deck. */
+    public static final RuleSet DEFAULT = new RuleSet(false, Hand.CHARLIE_CARDS, 1.0, 1, Shoe.DEFAULT_PENETRATION);
+
+    // Dealer hand states, as indexed by Hand.state(): (hard total << 2) | (has ace ? 1 : 0) | (Charlie ? 2 : 0)
+    private static final int STATES = 32 << 2;
+
+    private final boolean dealerHitsSoft17;
+    private final int charlieCards;
+    private final double blackjackPayout;
+    private final int decks;
+    private final double penetration;
+
+    // Whether the dealer draws, indexed by hand state
+    private final boolean[] dealerDraws;
+    // Result code of a round, indexed by outcomeIndex()
+    private final byte[] outcomes;
+
+    /**
+     * Constructs a rule set and compiles its lookup tables.
+     *
+     * @param dealerHitsSoft17 Whether the dealer draws to a soft 17 rather than standing.
+     * @param charlieCards The number of cards under 21 that wins outright, from {@link #MIN_CHARLIE_CARDS}
+     *                     to {@link #MAX_CHARLIE_CARDS}, or {@link #NO_CHARLIE}.
+     * @param blackjackPayout What a player blackjack pays per unit bet, such as 1 or 1.5.
+     * @param decks The number of decks in the shoe, from {@link Shoe#MIN_DECKS} to {@link Shoe#MAX_DECKS}.
+     * @param penetration The fraction of the shoe dealt before reshuffling, above 0 and at most 1.
+     */
+    public RuleSet(boolean dealerHitsSoft17, int charlieCards, double blackjackPayout, int decks, double penetration) {
+        if (charlieCards != NO_CHARLIE && (charlieCards < MIN_CHARLIE_CARDS || charlieCards > MAX_CHARLIE_CARDS)) {
+            throw new IllegalArgumentException("A Charlie needs " + MIN_CHARLIE_CARDS + " to " + MAX_CHARLIE_CARDS
+                    + " cards, or " + NO_CHARLIE + " for none: " + charlieCards);
+        }
+        if (!(blackjackPayout >= 1 && blackjackPayout <= 2)) {
+            throw new IllegalArgumentException("Blackjack must pay from 1 to 2 times the bet: " + blackjackPayout);
+        }
+        if (decks < Shoe.MIN_DECKS || decks > Shoe.MAX_DECKS) {
+            throw new IllegalArgumentException("A shoe holds " + Shoe.MIN_DECKS + " to " + Shoe.MAX_DECKS + " decks: " + decks);
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be above 0 and at most 1: " + penetration);
+        }
+
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.charlieCards = charlieCards;
+        this.blackjackPayout = blackjackPayout;
+        this.decks = decks;
+        this.penetration = penetration;
+        dealerDraws = compileDealerDraws(dealerHitsSoft17);
+        outcomes = compileOutcomes();
+    }
+
+    /**
+     * Compiles the dealer's drawing policy for every hand state.
+     *
+     * @param hitsSoft17 Whether the dealer draws to a soft 17.
+     * @return Whether the dealer draws, indexed by hand state.
+     */
+    private static boolean[] compileDealerDraws(boolean hitsSoft17) {
+        boolean[] draws = new boolean[STATES];
+        for (int state = 0; state < STATES; state++) {
+            int value = Hand.valueOfState(state);
+            boolean charlie = (state & 2) != 0 && value == 21;
+            boolean soft = (state & 1) != 0 && (state >> 2) + 10 == value;
+
+            // The dealer draws below 17, and on a soft 17 when the rules say so; a Charlie always stands
+            draws[state] = !charlie && (value < BlackjackEngine.DEALER_STANDS_ON
+                    || (hitsSoft17 && soft && value == BlackjackEngine.DEALER_STANDS_ON));
+        }
+        return draws;
+    }
+
+    /**
+     * Compiles the result of every combination of hand values, blackjacks and whether the dealer has played.
+     *
+     * @return The result codes, indexed by {@link #outcomeIndex(int, int, int, int, int)}.
+     */
+    private static byte[] compileOutcomes() {
+        byte[] table = new byte[32 * 2 * 32 * 2 * 2];
+        for (int playerValue = 0; playerValue < 32; playerValue++) {
+            for (int playerBlackjack = 0; playerBlackjack < 2; playerBlackjack++) {
+                for (int dealerValue = 0; dealerValue < 32; dealerValue++) {
+                    for (int dealerBlackjack = 0; dealerBlackjack < 2; dealerBlackjack++) {
+                        for (int played = 0; played < 2; played++) {
+                            table[outcomeIndex(playerValue, playerBlackjack, dealerValue, dealerBlackjack, played)] =
+                                    (byte) resolve(playerValue, playerBlackjack == 1, dealerValue, dealerBlackjack == 1, played == 1);
+                        }
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Resolves one round state: blackjacks settle the round first and tie each other, a player bust
+     * loses before the dealer plays, and once the dealer has played the higher total wins and equal
+     * totals push.
+     *
+     * @param playerValue The player's hand value.
+     * @param playerBlackjack Whether the player holds a blackjack.
+     * @param dealerValue The dealer's hand value.
+     * @param dealerBlackjack Whether the dealer holds a blackjack.
+     * @param dealerPlayed Whether the dealer has played out their hand.
+     * @return The result code.
+     */
+    private static int resolve(int playerValue, boolean playerBlackjack, int dealerValue, boolean dealerBlackjack,
+                               boolean dealerPlayed) {
+        if (playerBlackjack && dealerBlackjack) {
+            return BlackjackEngine.TIE;
+        }
+        if (playerBlackjack) {
+            return BlackjackEngine.PLAYER_WINS;
+        }
+        if (dealerBlackjack) {
+            return BlackjackEngine.DEALER_WINS;
+        }
+        if (!dealerPlayed) {
+            return playerValue > 21 ? BlackjackEngine.DEALER_WINS : BlackjackEngine.IN_PROGRESS;
+        }
+        if (playerValue == dealerValue) {
+            return BlackjackEngine.TIE;
+        }
+        return dealerValue > 21 || playerValue > dealerValue ? BlackjackEngine.PLAYER_WINS : BlackjackEngine.DEALER_WINS;
+    }
+
+    /**
+     * Computes the index of a round state in the outcome table.
+     *
+     * @param playerValue The player's hand value, at most 31.
+     * @param playerBlackjack 1 if the player holds a blackjack, otherwise 0.
+     * @param dealerValue The dealer's hand value, at most 31.
+     * @param dealerBlackjack 1 if the dealer holds a blackjack, otherwise 0.
+     * @param dealerPlayed 1 if the dealer has played, otherwise 0.
+     * @return The table index.
+     */
+    private static int outcomeIndex(int playerValue, int playerBlackjack, int dealerValue, int dealerBlackjack,
+                                    int dealerPlayed) {
+        return (((playerValue << 1 | playerBlackjack) << 5 | dealerValue) << 1 | dealerBlackjack) << 1 | dealerPlayed;
+    }
+
+    /**
+     * Creates a hand that plays by these rules.
+     *
+     * @return The empty hand.
+     */
+    public Hand newHand() {
+        return new Hand(charlieCards);
+    }
+
+    /**
+     * Creates a seeded shoe of these rules' size and reshuffle point.
+     *
+     * @param seed The seed of the shoe's random stream.
+     * @return The shuffled shoe.
+     */
+    public Shoe newShoe(long seed) {
+        return new Shoe(decks, penetration, seed);
+    }
+
+    /**
+     * Creates a seeded shoe of these rules' size and reshuffle point that shuffles with the given kind of generator.
+     *
+     * @param seed The seed of the shoe's random stream.
+     * @param random The kind of generator.
+     * @return The shuffled shoe.
+     */
+    public Shoe newShoe(long seed, ShoeRandom random) {
+        return new Shoe(decks, penetration, seed, random);
+    }
+
+    /**
+     * Creates a shoe of these rules' size and reshuffle point.
+     *
+     * @param random The random source used for shuffling.
+     * @return The shuffled shoe.
+     */
+    public Shoe newShoe(RandomGenerator random) {
+        return new Shoe(decks, penetration, random);
+    }
+
+    /**
+     * Checks whether the dealer draws another card to a hand.
+     *
+     * @param dealerHand The dealer's hand, which must have been built by {@link #newHand()}.
+     * @return True if the dealer draws.
+     */
+    public boolean dealerDraws(Hand dealerHand) {
+        return dealerDraws[dealerHand.state()];
+    }
+
+    /**
+     * Checks whether the dealer draws another card to a hand described by its totals.
+     *
+     * @param hardTotal The hand total with aces counted as 1.
+     * @param hasAce Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @return True if the dealer draws.
+     */
+    public boolean dealerDraws(int hardTotal, boolean hasAce, int cards) {
+        return dealerDraws[Hand.state(hardTotal, hasAce ? 1 : 0, cards, charlieCards)];
+    }
+
+    /**
+     * Resolves the round between two hands.
+     *
+     * @param playerHand The player's hand.
+     * @param dealerHand The dealer's hand.
+     * @param dealerPlayed Whether the dealer has played out their hand.
+     * @return {@link BlackjackEngine#IN_PROGRESS}, {@link BlackjackEngine#DEALER_WINS},
+     *         {@link BlackjackEngine#PLAYER_WINS} or {@link BlackjackEngine#TIE}.
+     */
+    public int outcome(Hand playerHand, Hand dealerHand, boolean dealerPlayed) {
+        return outcomes[outcomeIndex(playerHand.value(), playerHand.isBlackjack() ? 1 : 0,
+                dealerHand.value(), dealerHand.isBlackjack() ? 1 : 0, dealerPlayed ? 1 : 0)];
+    }
+
+    /**
+     * Converts a finished round into the player's net win in units of the bet.
+     *
+     * @param result The result code.
+     * @param playerHand The player's final hand.
+     * @return The net win or loss.
+     */
+    public double payout(int result, Hand playerHand) {
+        if (result == BlackjackEngine.PLAYER_WINS) {
+            return playerHand.isBlackjack() ? blackjackPayout : 1;
+        } else if (result == BlackjackEngine.TIE) {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Computes what a winning hand is paid, rounding a fractional blackjack payout down to whole chips.
+     *
+     * @param bet The amount bet.
+     * @param playerHand The player's winning hand.
+     * @return The amount won on top of the returned bet.
+     */
+    public int winnings(int bet, Hand playerHand) {
+        return playerHand.isBlackjack() ? (int) (bet * blackjackPayout) : bet;
+    }
+
+    /**
+     * Creates a copy of these rules with a different soft 17 rule.
+     *
+     * @param hitsSoft17 Whether the dealer draws to a soft 17.
+     * @return The new rule set.
+     */
+    public RuleSet withDealerHitsSoft17(boolean hitsSoft17) {
+        return new RuleSet(hitsSoft17, charlieCards, blackjackPayout, decks, penetration);
+    }
+
+    /**
+     * Creates a copy of these rules with a different Charlie rule.
+     *
+     * @param cards The Charlie card count, or {@link #NO_CHARLIE}.
+     * @return The new rule set.
+     */
+    public RuleSet withCharlieCards(int cards) {
+        return new RuleSet(dealerHitsSoft17, cards, blackjackPayout, decks, penetration);
+    }
+
+    /**
+     * Creates a copy of these rules with a different blackjack payout.
+     *
+     * @param payout What a player blackjack pays per unit bet.
+     * @return The new rule set.
+     */
+    public RuleSet withBlackjackPayout(double payout) {
+        return new RuleSet(dealerHitsSoft17, charlieCards, payout, decks, penetration);
+    }
+
+    /**
+     * Creates a copy of these rules with a different shoe size.
+     *
+     * @param decks The number of decks.
+     * @return The new rule set.
+     */
+    public RuleSet withDecks(int decks) {
+        return new RuleSet(dealerHitsSoft17, charlieCards, blackjackPayout, decks, penetration);
+    }
+
+    /**
+     * Creates a copy of these rules with a different reshuffle point.
+     *
+     * @param penetration The fraction of the shoe dealt before reshuffling.
+     * @return The new rule set.
+     */
+    public RuleSet withPenetration(double penetration) {
+        return new RuleSet(dealerHitsSoft17, charlieCards, blackjackPayout, decks, penetration);
+    }
+
+    /**
+     * Parses a rule set from a comma-separated list of changes to the default rules, such as
+     * {@code h17,charlie=6,bj=1.5,decks=6,pen=0.75}. {@code s17} and {@code nocharlie} are also accepted.
+     *
+     * @param spec The rule list; empty for the default rules.
+     * @return The rule set.
+     * @throws IllegalArgumentException If a rule is unknown or out of range.
+     */
+    public static RuleSet parse(String spec) {
+        RuleSet rules = DEFAULT;
+        for (String part : spec.split(",")) {
+            String rule = part.trim().toLowerCase(Locale.ROOT);
+            int equals = rule.indexOf('=');
+            String name = equals < 0 ? rule : rule.substring(0, equals);
+            String value = equals < 0 ? "" : rule.substring(equals + 1);
+            try {
+                switch (name) {
+                    case "" -> { }
+                    case "h17" -> rules = rules.withDealerHitsSoft17(true);
+                    case "s17" -> rules = rules.withDealerHitsSoft17(false);
+                    case "nocharlie" -> rules = rules.withCharlieCards(NO_CHARLIE);
+                    case "charlie" -> rules = rules.withCharlieCards(Integer.parseInt(value));
+                    case "bj" -> rules = rules.withBlackjackPayout(parsePayout(value));
+                    case "decks" -> rules = rules.withDecks(Integer.parseInt(value));
+                    case "pen" -> rules = rules.withPenetration(Double.parseDouble(value));
+                    default -> throw new IllegalArgumentException("Unknown rule: " + rule);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad value for rule " + name + ": " + value, e);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Parses a payout written as a ratio such as {@code 3:2} or as a number such as {@code 1.5}.
+     *
+     * @param value The payout.
+     * @return The payout per unit bet.
+     */
+    private static double parsePayout(String value) {
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return Double.parseDouble(value);
+        }
+        return Double.parseDouble(value.substring(0, colon)) / Double.parseDouble(value.substring(colon + 1));
+    }
+
+    /**
+     * Checks whether the dealer draws to a soft 17.
+     *
+     * @return True if the dealer hits soft 17.
+     */
+    public boolean dealerHitsSoft17() {
+        return dealerHitsSoft17;
+    }
+
+    /**
+     * Retrieves the number of cards under 21 that wins outright.
+     *
+     * @return The Charlie card count, or {@link #NO_CHARLIE}.
+     */
+    public int getCharlieCards() {
+        return charlieCards;
+    }
+
+    /**
+     * Retrieves what a player blackjack pays.
+     *
+     * @return The payout per unit bet.
+     */
+    public double getBlackjackPayout() {
+        return blackjackPayout;
+    }
+
+    /**
+     * Retrieves the number of decks in the shoe.
+     *
+     * @return The deck count.
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Retrieves the fraction of the shoe dealt before reshuffling.
+     *
+     * @return The penetration.
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RuleSet rules
+                && dealerHitsSoft17 == rules.dealerHitsSoft17
+                && charlieCards == rules.charlieCards
+                && blackjackPayout == rules.blackjackPayout
+                && decks == rules.decks
+                && penetration == rules.penetration;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dealerHitsSoft17, charlieCards, blackjackPayout, decks, penetration);
+    }
+
+    /**
+     * Describes the rules in the form {@link #parse(String)} reads.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s,%s,bj=%s,decks=%d,pen=%.4f",
+                dealerHitsSoft17 ? "h17" : "s17",
+                charlieCards == NO_CHARLIE ? "nocharlie" : "charlie=" + charlieCards,
+                blackjackPayout, decks, penetration);
+    }
+}
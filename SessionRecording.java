@@ -0,0 +1,357 @@
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The SessionRecording class captures one game session compactly enough to keep thousands of them:
+ * the shoe's configuration and seed, followed by a byte stream of the player's actions and the
+ * outcome of every round. Given the seed, the actions alone determine every card dealt, so the
+ * outcomes are only stored to check a replay against. The seed is stored with the {@link ShoeRandom}
+ * it seeds; recordings from before that choice existed all used {@link ShoeRandom#SPLITTABLE}.
+ *
+ * <p>Each action is one byte whose low two bits are the opcode. A bet is followed by its amount
+ * and an outcome by the balance after the round, both as unsigned variable-length integers, so a
+ * typical round takes five or six bytes.
+ * <pre>
+ * 0  BET     amount
+ * 1  HIT
+ * 2  STAND
+ * 3  RESULT  (result code in the upper bits) balance
+ * </pre>
+ */
+public class SessionRecording {
+    /** Opcode of a bet, which deals a new round. */
+    public static final int BET = 0;
+    /** Opcode of a hit. */
+    public static final int HIT = 1;
+    /** Opcode of a stand. */
+    public static final int STAND = 2;
+    /** Opcode of a finished round's outcome. */
+    public static final int RESULT = 3;
+
+    /** The directory finished sessions are saved to. */
+    public static final String RECORDINGS_DIR = "sessions";
+    /** The file extension of saved recordings. */
+    public static final String EXTENSION = ".bjr";
+
+    private static final int MAGIC = 0x424A5352; // "BJSR"
+    private static final int VERSION = 2;
+
+    private final int decks;
+    private final double penetration;
+    private final long seed;
+    private final ShoeRandom algorithm;
+    private final int startingBalance;
+    private byte[] actions;
+    private int length;
+    private int rounds;
+
+    /**
+     * Constructs an empty recording of a session dealt from a seeded shoe.
+     *
+     * @param shoe The session's shoe, which must be seeded and not yet dealt from.
+     * @param startingBalance The balance the session starts with.
+     */
+    public SessionRecording(Shoe shoe, int startingBalance) {
+        this(shoe.getDecks(), shoe.getPenetration(), shoe.getSeed(),
+                shoe.getAlgorithm() != null ? shoe.getAlgorithm() : ShoeRandom.SPLITTABLE, startingBalance, new byte[64], 0);
+    }
+
+    /**
+     * Constructs a recording from its parts.
+     *
+     * @param decks The number of decks in the shoe.
+     * @param penetration The shoe's penetration.
+     * @param seed The shoe's seed.
+     * @param algorithm The kind of generator the seed seeds.
+     * @param startingBalance The balance the session starts with.
+     * @param actions The action stream.
+     * @param length The number of bytes of the stream in use.
+     */
+    private SessionRecording(int decks, double penetration, long seed, ShoeRandom algorithm, int startingBalance,
+                             byte[] actions, int length) {
+        this.decks = decks;
+        this.penetration = penetration;
+        this.seed = seed;
+        this.algorithm = algorithm;
+        this.startingBalance = startingBalance;
+        this.actions = actions;
+        this.length = length;
+    }
+
+    /**
+     * Records a bet, which deals a new round.
+     *
+     * @param amount The amount bet.
+     */
+    public void recordBet(int amount) {
+        append(BET);
+        appendVarInt(amount);
+    }
+
+    /**
+     * Records a hit.
+     */
+    public void recordHit() {
+        append(HIT);
+    }
+
+    /**
+     * Records a stand.
+     */
+    public void recordStand() {
+        append(STAND);
+    }
+
+    /**
+     * Records the outcome of the round just finished.
+     *
+     * @param result The result code.
+     * @param balance The balance after the round.
+     */
+    public void recordResult(int result, int balance) {
+        append(RESULT | (result << 2));
+        appendVarInt(balance);
+        rounds++;
+    }
+
+    /**
+     * Appends one byte to the action stream.
+     *
+     * @param value The byte.
+     */
+    private void append(int value) {
+        if (length == actions.length) {
+            actions = Arrays.copyOf(actions, length * 2);
+        }
+        actions[length++] = (byte) value;
+    }
+
+    /**
+     * Appends an unsigned variable-length integer, seven bits per byte, low bits first.
+     *
+     * @param value The non-negative value.
+     */
+    private void appendVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            append((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        append(value);
+    }
+
+    /**
+     * Starts reading the action stream from the beginning.
+     *
+     * @return A reader positioned at the first action.
+     */
+    public ActionReader reader() {
+        return new ActionReader();
+    }
+
+    /**
+     * Creates a fresh shoe identical to the one the session was dealt from.
+     *
+     * @return The shoe.
+     */
+    public Shoe newShoe() {
+        return new Shoe(decks, penetration, seed, algorithm);
+    }
+
+    /**
+     * Retrieves the number of bytes in the action stream.
+     *
+     * @return The stream length.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Retrieves the number of finished rounds recorded.
+     *
+     * @return The round count.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Retrieves the shoe's seed.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the kind of generator the shoe shuffled with.
+     *
+     * @return The generator choice.
+     */
+    public ShoeRandom getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Retrieves the file name the recording is saved under, derived from its seed.
+     *
+     * @return The file name.
+     */
+    public String getFileName() {
+        return String.format("session_%016x%s", seed, EXTENSION);
+    }
+
+    /**
+     * Retrieves the balance the session starts with.
+     *
+     * @return The starting balance.
+     */
+    public int getStartingBalance() {
+        return startingBalance;
+    }
+
+    /**
+     * Writes the recording to a stream.
+     *
+     * @param out The stream.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(decks);
+        out.writeDouble(penetration);
+        out.writeLong(seed);
+        out.writeByte(algorithm.ordinal());
+        out.writeInt(startingBalance);
+        out.writeInt(rounds);
+        out.writeInt(length);
+        out.write(actions, 0, length);
+    }
+
+    /**
+     * Reads a recording written by {@link #write(DataOutput)}, or by the version before it.
+     *
+     * @param in The stream.
+     * @return The recording.
+     * @throws IOException If the stream cannot be read or does not hold a recording.
+     */
+    public static SessionRecording read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a session recording");
+        }
+        int version = in.readInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported session recording version " + version);
+        }
+        int decks = in.readInt();
+        double penetration = in.readDouble();
+        long seed = in.readLong();
+        ShoeRandom algorithm = ShoeRandom.SPLITTABLE;
+        if (version >= 2) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= ShoeRandom.values().length) {
+                throw new IOException("Unknown random generator " + ordinal);
+            }
+            algorithm = ShoeRandom.values()[ordinal];
+        }
+        int startingBalance = in.readInt();
+        int rounds = in.readInt();
+        int length = in.readInt();
+        byte[] actions = new byte[Math.max(length, 1)];
+        in.readFully(actions, 0, length);
+
+        SessionRecording recording = new SessionRecording(decks, penetration, seed, algorithm, startingBalance, actions, length);
+        recording.rounds = rounds;
+        return recording;
+    }
+
+    /**
+     * Saves the recording to a file.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Saves the recording into {@link #RECORDINGS_DIR}, named after its seed, on a background thread.
+     * The recording must not change while it is being saved.
+     *
+     * @return A future completed with the saved file.
+     */
+    public CompletableFuture<File> saveAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            File directory = new File(RECORDINGS_DIR);
+            File file = new File(directory, getFileName());
+            try {
+                directory.mkdirs();
+                save(file);
+            } catch (IOException e) {
+                System.err.println("Failed to save session recording: " + e.getMessage());
+            }
+            return file;
+        });
+    }
+
+    /**
+     * Loads a recording from a file.
+     *
+     * @param file The file.
+     * @return The recording.
+     * @throws IOException If the file cannot be read or does not hold a recording.
+     */
+    public static SessionRecording load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * A forward-only cursor over the action stream.
+     */
+    public class ActionReader {
+        private int position;
+
+        /**
+         * Checks whether any actions are left.
+         *
+         * @return True if another action can be read.
+         */
+        public boolean hasNext() {
+            return position < length;
+        }
+
+        /**
+         * Reads one action byte.
+         *
+         * @return The action byte; its low two bits are the opcode.
+         */
+        public int nextAction() {
+            return actions[position++] & 0xFF;
+        }
+
+        /**
+         * Reads an unsigned variable-length integer.
+         *
+         * @return The value.
+         */
+        public int nextVarInt() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = actions[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
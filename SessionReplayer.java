@@ -0,0 +1,233 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SessionReplayer class re-runs recorded sessions headless through the same {@link BlackjackGame}
+ * code the table uses and checks every round's outcome and balance against the recording. A replay
+ * deals from a fresh shoe built from the recorded seed, so any difference means the rules have
+ * changed. Sessions are independent, so a directory of recordings is replayed in parallel.
+ */
+public class SessionReplayer implements BlackjackListener {
+    private final SessionRecording recording;
+    private final BlackjackEngine engine;
+    private BlackjackGame game;
+    private int balance;
+    private int lastResult;
+    private int rounds;
+    private int mismatches;
+    private String firstMismatch;
+
+    /**
+     * Constructs a replayer for one recording.
+     *
+     * @param recording The recording to replay.
+     */
+    public SessionReplayer(SessionRecording recording) {
+        this(recording, new BlackjackEngine(recording.newShoe()));
+    }
+
+    /**
+     * Constructs a replayer for one recording that plays on the given engine.
+     *
+     * @param recording The recording.
+     * @param engine The engine, dealing from the recording's shoe.
+     */
+    private SessionReplayer(SessionRecording recording, BlackjackEngine engine) {
+        this.recording = recording;
+        this.engine = engine;
+        game = new BlackjackGame(engine);
+        balance = recording.getStartingBalance();
+    }
+
+    /**
+     * Replays every action in the recording and compares each outcome.
+     *
+     * @return The number of rounds whose outcome or balance differed from the recording.
+     */
+    public int replay() {
+        SessionRecording.ActionReader reader = recording.reader();
+        while (reader.hasNext()) {
+            int action = reader.nextAction();
+            switch (action & 3) {
+                case SessionRecording.BET:
+                    // Losing everything starts a new bankroll, as the tables do
+                    if (balance == 0) {
+                        balance = recording.getStartingBalance();
+                    }
+                    lastResult = BlackjackEngine.IN_PROGRESS;
+                    game.startGame(this, balance, reader.nextVarInt());
+                    break;
+                case SessionRecording.HIT:
+                    game.hit();
+                    break;
+                case SessionRecording.STAND:
+                    game.stand();
+                    break;
+                default:
+                    check(action >>> 2, reader.nextVarInt());
+                    break;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Compares the outcome of the round just replayed with the recorded one.
+     *
+     * @param expectedResult The recorded result code.
+     * @param expectedBalance The recorded balance after the round.
+     */
+    private void check(int expectedResult, int expectedBalance) {
+        if (lastResult != expectedResult || balance != expectedBalance) {
+            mismatches++;
+            if (firstMismatch == null) {
+                firstMismatch = String.format("round %d: recorded result %d balance %d, replayed result %d balance %d",
+                        rounds + 1, expectedResult, expectedBalance, lastResult, balance);
+            }
+        }
+        rounds++;
+    }
+
+    /**
+     * Retrieves the number of rounds replayed.
+     *
+     * @return The round count.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Describes the first round that differed from the recording.
+     *
+     * @return The description, or null if every round matched.
+     */
+    public String getFirstMismatch() {
+        return firstMismatch;
+    }
+
+    @Override
+    public void balanceChanged(int newBalance) {
+        balance = newBalance;
+    }
+
+    @Override
+    public void roundWon(int amount) {
+        lastResult = BlackjackEngine.PLAYER_WINS;
+    }
+
+    @Override
+    public void roundTied() {
+        lastResult = BlackjackEngine.TIE;
+    }
+
+    @Override
+    public void roundLost(int amount) {
+        lastResult = BlackjackEngine.DEALER_WINS;
+    }
+
+    @Override
+    public void bankrupt() {
+        lastResult = BlackjackEngine.DEALER_WINS;
+        balance = 0;
+
+        // The tables carry on with the same shoe and a new game
+        engine.resetRound();
+        BlackjackGame next = new BlackjackGame(engine);
+        next.setRecording(game.getRecording());
+        game = next;
+    }
+
+    /**
+     * Plays and records sample sessions with the solved strategy, for building a replay corpus.
+     *
+     * @param directory The directory to save the recordings in.
+     * @param sessions The number of sessions.
+     * @param rounds The number of rounds in each session.
+     * @param seed The seed the sessions' shoes and bets are derived from.
+     * @throws IOException If a recording cannot be saved.
+     */
+    public static void recordSamples(File directory, int sessions, int rounds, long seed) throws IOException {
+        directory.mkdirs();
+        SplittableRandom random = new SplittableRandom(seed);
+        StrategyTable strategy = StrategyTable.forDecks(1);
+
+        for (int i = 0; i < sessions; i++) {
+            BlackjackEngine engine = new BlackjackEngine(new Shoe(1, Shoe.DEFAULT_PENETRATION, random.nextLong()));
+            SessionRecording recording = new SessionRecording(engine.getShoe(), BlackjackGame.STARTING_BALANCE);
+            SessionReplayer player = new SessionReplayer(recording, engine);
+            player.game.setRecording(recording);
+
+            for (int round = 0; round < rounds; round++) {
+                if (player.balance == 0) {
+                    player.balance = BlackjackGame.STARTING_BALANCE;
+                }
+                player.lastResult = BlackjackEngine.IN_PROGRESS;
+                player.game.startGame(player, player.balance, 1 + random.nextInt(Math.min(player.balance, 100)));
+                while (player.lastResult == BlackjackEngine.IN_PROGRESS) {
+                    if (strategy.shouldHit(engine.getPlayerHand(), engine.getDealerHand().card(0))) {
+                        player.game.hit();
+                    } else {
+                        player.game.stand();
+                    }
+                }
+            }
+            recording.save(new File(directory, recording.getFileName()));
+        }
+    }
+
+    /**
+     * Replays recordings from the command line, or records a sample corpus with
+     * {@code record <directory> [sessions] [rounds] [seed]}.
+     *
+     * @param args Recording files or directories, {@value SessionRecording#RECORDINGS_DIR} by default.
+     * @throws IOException If a recording cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("record")) {
+            File directory = new File(args.length > 1 ? args[1] : SessionRecording.RECORDINGS_DIR);
+            int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+            int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+            recordSamples(directory, sessions, rounds, seed);
+            System.out.printf("Recorded %d sessions of %d rounds in %s%n", sessions, rounds, directory);
+            return;
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String path : args.length > 0 ? args : new String[] {SessionRecording.RECORDINGS_DIR}) {
+            File file = new File(path);
+            File[] children = file.listFiles((dir, name) -> name.endsWith(SessionRecording.EXTENSION));
+            if (children != null) {
+                files.addAll(List.of(children));
+            } else if (file.isFile()) {
+                files.add(file);
+            }
+        }
+
+        long start = System.nanoTime();
+        AtomicLong rounds = new AtomicLong();
+        AtomicLong failedSessions = new AtomicLong();
+        files.parallelStream().forEach(file -> {
+            try {
+                SessionReplayer replayer = new SessionReplayer(SessionRecording.load(file));
+                if (replayer.replay() > 0) {
+                    failedSessions.incrementAndGet();
+                    System.out.println("MISMATCH " + file + ": " + replayer.getFirstMismatch());
+                }
+                rounds.addAndGet(replayer.getRounds());
+            } catch (IOException | RuntimeException e) {
+                failedSessions.incrementAndGet();
+                System.out.println("ERROR " + file + ": " + e);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Sessions: %d, Rounds: %d, Mismatched sessions: %d%n", files.size(), rounds.get(), failedSessions.get());
+        System.out.printf("Time: %.2fs (%.0f rounds/s)%n", seconds, rounds.get() / seconds);
+    }
+}
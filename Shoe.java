@@ -0,0 +1,332 @@
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The Shoe class holds one to eight decks of encoded cards in a single primitive array. It shuffles
+ * in place with a Fisher-Yates pass and marks a cut card at a configurable penetration, so that a
+ * reshuffle touches each card once and allocates nothing. A shoe built from a seed deals the same
+ * sequence of cards across every reshuffle, so a recorded session can be replayed exactly. A
+ * {@link ShoeComposition} follows every card dealt, so the remaining cards and the count are always known.
+ * The generator is chosen per shoe with {@link ShoeRandom} and owned by it alone.
+ */
+public class Shoe {
+    /** The fewest decks a shoe may hold. */
+    public static final int MIN_DECKS = 1;
+    /** The most decks a shoe may hold. */
+    public static final int MAX_DECKS = 8;
+    /** The default penetration, which reshuffles a single deck once fewer than 20 cards remain. */
+    public static final double DEFAULT_PENETRATION = 33.0 / 52;
+
+    // Source of seeds for shoes that are not given one
+    private static final SplittableRandom SEEDS = new SplittableRandom();
+
+    private final int[] cards;
+    private final int decks;
+    private final double penetration;
+    private final int cutCard;
+    private RandomGenerator random;
+    private ShoeRandom algorithm;
+    private long seed;
+    private boolean seeded;
+    private final ShoeComposition composition;
+    private int position;
+    // Where the round being dealt started; the cards before it are discards
+    private int roundStart;
+
+    /**
+     * Constructs a single-deck shoe with the default penetration and a fresh recorded seed.
+     */
+    public Shoe() {
+        this(1, DEFAULT_PENETRATION, newSeed());
+    }
+
+    /**
+     * Constructs a new shuffled shoe whose every shuffle is derived from the given seed.
+     *
+     * @param decks The number of decks, from {@link #MIN_DECKS} to {@link #MAX_DECKS}.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out, above 0 and at most 1.
+     * @param seed The seed of the shoe's random stream.
+     */
+    public Shoe(int decks, double penetration, long seed) {
+        this(decks, penetration, seed, ShoeRandom.SPLITTABLE);
+    }
+
+    /**
+     * Constructs a new shuffled shoe that shuffles with the given kind of generator. Unless the
+     * generator is {@link ShoeRandom#SECURE}, every shuffle is derived from the seed.
+     *
+     * @param decks The number of decks, from {@link #MIN_DECKS} to {@link #MAX_DECKS}.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out, above 0 and at most 1.
+     * @param seed The seed of the shoe's random stream.
+     * @param algorithm The kind of generator.
+     */
+    public Shoe(int decks, double penetration, long seed, ShoeRandom algorithm) {
+        this(decks, penetration, algorithm.create(seed), seed, algorithm.isReproducible());
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Constructs a new shuffled shoe.
+     *
+     * @param decks The number of decks, from {@link #MIN_DECKS} to {@link #MAX_DECKS}.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out, above 0 and at most 1.
+     * @param random The random source used for shuffling, which the shoe then owns.
+     */
+    public Shoe(int decks, double penetration, RandomGenerator random) {
+        this(decks, penetration, random, 0, false);
+    }
+
+    /**
+     * Constructs a new shuffled shoe.
+     *
+     * @param decks The number of decks.
+     * @param penetration The fraction of the shoe dealt before the cut card comes out.
+     * @param random The random source used for shuffling.
+     * @param seed The seed the random source was built from, if known.
+     * @param seeded Whether the seed is known.
+     */
+    private Shoe(int decks, double penetration, RandomGenerator random, long seed, boolean seeded) {
+        if (decks < MIN_DECKS || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("A shoe holds " + MIN_DECKS + " to " + MAX_DECKS + " decks: " + decks);
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Penetration must be above 0 and at most 1: " + penetration);
+        }
+
+        this.decks = decks;
+        this.penetration = penetration;
+        this.random = random;
+        this.seed = seed;
+        this.seeded = seeded;
+        cards = new int[decks * Card.DECK_SIZE];
+        composition = new ShoeComposition(decks);
+        cutCard = Math.max(1, (int) Math.round(cards.length * penetration));
+        fillAndShuffle();
+    }
+
+    /**
+     * Puts every card back in deck order and shuffles, which is how a shoe starts from its seed.
+     */
+    private void fillAndShuffle() {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i % Card.DECK_SIZE;
+        }
+        shuffle();
+    }
+
+    /**
+     * Restarts the shoe from a new seed, dealing exactly what a new shoe built from that seed would
+     * deal while reusing this shoe's card array. A shoe built from a bare random source restarts with
+     * {@link ShoeRandom#SPLITTABLE}.
+     *
+     * @param seed The seed of the shoe's new random stream.
+     */
+    public void reseed(long seed) {
+        if (algorithm == null) {
+            algorithm = ShoeRandom.SPLITTABLE;
+        }
+        this.random = algorithm.create(seed);
+        this.seed = seed;
+        this.seeded = algorithm.isReproducible();
+        fillAndShuffle();
+    }
+
+    /**
+     * Draws a fresh seed for a shoe that should still be reproducible.
+     *
+     * @return The seed.
+     */
+    public static synchronized long newSeed() {
+        return SEEDS.nextLong();
+    }
+
+    /**
+     * Shuffles every card back into the shoe with an in-place Fisher-Yates pass.
+     */
+    public void shuffle() {
+        long start = System.nanoTime();
+        shuffleFrom(0);
+        position = 0;
+        roundStart = 0;
+        composition.reset();
+        EngineMetrics.get().recordShuffle(System.nanoTime() - start);
+    }
+
+    /**
+     * Shuffles the cards from the given index to the end of the shoe with a Fisher-Yates pass.
+     *
+     * @param first The index of the first card to shuffle.
+     */
+    private void shuffleFrom(int first) {
+        int[] cards = this.cards;
+        for (int i = cards.length - 1; i > first; i--) {
+            int j = first + random.nextInt(i - first + 1);
+            int card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+    }
+
+    /**
+     * Reshuffles only the discards when a round runs the shoe dry. The cards of the round being dealt
+     * stay out of the shoe: they are swapped to the front and counted as dealt, and the discards behind
+     * them are shuffled. A shoe that has not seen a round boundary since its last shuffle has no
+     * discards, so it is reshuffled whole.
+     */
+    private void shuffleDiscards() {
+        if (roundStart == 0) {
+            shuffle();
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[] cards = this.cards;
+        int inPlay = cards.length - roundStart;
+        for (int i = 0; i < Math.min(roundStart, inPlay); i++) {
+            int card = cards[i];
+            cards[i] = cards[cards.length - 1 - i];
+            cards[cards.length - 1 - i] = card;
+        }
+        shuffleFrom(inPlay);
+        composition.reset();
+        for (int i = 0; i < inPlay; i++) {
+            composition.cardDealt(cards[i]);
+        }
+        position = inPlay;
+        roundStart = 0;
+        EngineMetrics.get().recordShuffle(System.nanoTime() - start);
+    }
+
+    /**
+     * Deals the next card from the shoe. If a round runs the shoe dry, the discards are reshuffled
+     * first while the cards already on the table stay dealt.
+     *
+     * @return The encoded card.
+     */
+    public int deal() {
+        if (position == cards.length) {
+            shuffleDiscards();
+        }
+        int card = cards[position++];
+        composition.cardDealt(card);
+        return card;
+    }
+
+    /**
+     * Checks whether the cut card has come out, meaning the shoe should be reshuffled before the next round.
+     *
+     * @return True if the shoe needs a reshuffle.
+     */
+    public boolean needsShuffle() {
+        return position >= cutCard;
+    }
+
+    /**
+     * Reshuffles the shoe if the cut card has come out. It is called between rounds, so it also marks
+     * where the next round starts.
+     *
+     * @return True if the shoe was reshuffled.
+     */
+    public boolean shuffleIfNeeded() {
+        if (position >= cutCard) {
+            shuffle();
+            return true;
+        }
+        roundStart = position;
+        return false;
+    }
+
+    /**
+     * Counts the cards left to deal in each value class, Ace first and the ten-valued cards last.
+     *
+     * @param composition The array of {@link DealerOddsCalculator#VALUE_CLASSES} counts to fill.
+     */
+    public void countRemaining(int[] composition) {
+        this.composition.countValueClasses(composition);
+    }
+
+    /**
+     * Retrieves the live composition of the cards left to deal.
+     *
+     * @return The composition, updated as cards are dealt.
+     */
+    public ShoeComposition getComposition() {
+        return composition;
+    }
+
+    /**
+     * Retrieves the number of cards left to deal.
+     *
+     * @return The remaining card count.
+     */
+    public int remaining() {
+        return cards.length - position;
+    }
+
+    /**
+     * Retrieves the total number of cards in the shoe.
+     *
+     * @return The shoe size.
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Retrieves the number of decks in the shoe.
+     *
+     * @return The deck count.
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Retrieves the fraction of the shoe dealt before the cut card comes out.
+     *
+     * @return The penetration.
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /**
+     * Retrieves the kind of generator the shoe shuffles with.
+     *
+     * @return The generator choice, or null if the shoe was built from a bare random source.
+     */
+    public ShoeRandom getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Checks whether the shoe was built from a known seed and can be reproduced.
+     *
+     * @return True if {@link #getSeed()} is meaningful.
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Retrieves the seed the shoe's shuffles are derived from.
+     *
+     * @return The seed.
+     * @throws IllegalStateException If the shoe was built from a random source rather than a seed.
+     */
+    public long getSeed() {
+        if (!seeded) {
+            throw new IllegalStateException("Shoe was not built from a seed");
+        }
+        return seed;
+    }
+
+    /**
+     * Retrieves how many cards are dealt before the shoe is reshuffled.
+     *
+     * @return The cut card position.
+     */
+    public int getCutCard() {
+        return cutCard;
+    }
+}
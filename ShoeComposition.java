@@ -0,0 +1,107 @@
+/**
+ * The ShoeComposition class tracks what is left in a {@link Shoe} as cards are dealt: the remaining
+ * count of every rank, the Hi-Lo running count and the true count. Each dealt card costs two array
+ * updates and a reshuffle copies one thirteen-entry array, so odds, bet sizing and analytics can read
+ * the shoe's state at any time without scanning the cards.
+ */
+public class ShoeComposition {
+    private final int decks;
+    private final int[] fullCounts;
+    private final int[] rankCounts;
+    private int remaining;
+    private int runningCount;
+
+    /**
+     * Constructs the composition of a freshly shuffled shoe.
+     *
+     * @param decks The number of decks in the shoe.
+     */
+    public ShoeComposition(int decks) {
+        this.decks = decks;
+        fullCounts = new int[Card.RANKS];
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            fullCounts[rank] = 4 * decks;
+        }
+        rankCounts = new int[Card.RANKS];
+        reset();
+    }
+
+    /**
+     * Restores the full shoe, as after a reshuffle.
+     */
+    void reset() {
+        System.arraycopy(fullCounts, 0, rankCounts, 0, Card.RANKS);
+        remaining = decks * Card.DECK_SIZE;
+        runningCount = 0;
+    }
+
+    /**
+     * Removes one dealt card from the composition.
+     *
+     * @param card The encoded card.
+     */
+    void cardDealt(int card) {
+        rankCounts[Card.rank(card)]--;
+        runningCount += Card.hiLo(card);
+        remaining--;
+    }
+
+    /**
+     * Retrieves the number of cards of a rank left to deal.
+     *
+     * @param rank The rank index, from 0 for a Two to {@link Card#ACE_RANK}.
+     * @return The remaining count.
+     */
+    public int remaining(int rank) {
+        return rankCounts[rank];
+    }
+
+    /**
+     * Retrieves the number of cards left to deal.
+     *
+     * @return The remaining card count.
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Counts the cards left to deal in each value class, Ace first and the ten-valued cards last.
+     *
+     * @param composition The array of {@link DealerOddsCalculator#VALUE_CLASSES} counts to fill.
+     */
+    public void countValueClasses(int[] composition) {
+        composition[0] = rankCounts[Card.ACE_RANK];
+        for (int rank = 0; rank < 8; rank++) {
+            composition[rank + 1] = rankCounts[rank];
+        }
+        composition[9] = rankCounts[8] + rankCounts[9] + rankCounts[10] + rankCounts[11];
+    }
+
+    /**
+     * Retrieves the Hi-Lo running count of the cards dealt since the last shuffle.
+     *
+     * @return The running count.
+     */
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Retrieves the Hi-Lo true count, the running count per deck left to deal.
+     *
+     * @return The true count, or 0 once the shoe is empty.
+     */
+    public double getTrueCount() {
+        return remaining == 0 ? 0 : runningCount * (double) Card.DECK_SIZE / remaining;
+    }
+
+    /**
+     * Retrieves the number of decks left to deal.
+     *
+     * @return The remaining decks, as a fraction.
+     */
+    public double getDecksRemaining() {
+        return remaining / (double) Card.DECK_SIZE;
+    }
+}
@@ -0,0 +1,123 @@
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * The ShoeRandom enum selects the random number generator a {@link Shoe} shuffles with. Every shoe
+ * owns its own generator instance, so a generator is only ever used by the thread dealing from that
+ * shoe and never contended. The seeded algorithms reproduce a shoe from its seed; parallel workers get
+ * non-overlapping streams by splitting a splittable generator or by jumping a jumpable one ahead.
+ * {@link #SECURE} draws from the operating system's entropy for tables where no one should be able
+ * to predict the cards, at the cost of speed and of replay.
+ */
+public enum ShoeRandom {
+    /** {@link SplittableRandom}, the default, which every recorded session before this choice used. */
+    SPLITTABLE("SplittableRandom"),
+    /** The L64X128MixRandom LXM generator: splittable, with a far longer period than SplittableRandom. */
+    L64X128("L64X128MixRandom"),
+    /** The Xoshiro256PlusPlus generator: the fastest here, and jumpable in steps of 2^128 draws. */
+    XOSHIRO("Xoshiro256PlusPlus"),
+    /** {@link SecureRandom}: unpredictable and unseeded, so shoes using it cannot be replayed. */
+    SECURE("SecureRandom");
+
+    private final String algorithm;
+    private RandomGeneratorFactory<RandomGenerator> factory;
+
+    /**
+     * Constructs a choice of generator.
+     *
+     * @param algorithm The JDK algorithm name.
+     */
+    ShoeRandom(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Creates a generator whose stream is determined by a seed.
+     *
+     * @param seed The seed; ignored by {@link #SECURE}.
+     * @return The generator.
+     */
+    public RandomGenerator create(long seed) {
+        switch (this) {
+            case SPLITTABLE:
+                return new SplittableRandom(seed);
+            case SECURE:
+                return new SecureRandom();
+            default:
+                return factory().create(seed);
+        }
+    }
+
+    /**
+     * Looks up the JDK factory of the algorithm once; the lookup goes through the service loader.
+     *
+     * @return The factory.
+     */
+    private synchronized RandomGeneratorFactory<RandomGenerator> factory() {
+        if (factory == null) {
+            factory = RandomGeneratorFactory.of(algorithm);
+        }
+        return factory;
+    }
+
+    /**
+     * Checks whether a generator of this kind deals the same cards again from the same seed.
+     *
+     * @return True unless this is {@link #SECURE}.
+     */
+    public boolean isReproducible() {
+        return this != SECURE;
+    }
+
+    /**
+     * Divides a generator's stream between the two halves of a parallel task. A splittable generator
+     * is split twice, in order. A jumpable generator is copied for the left half and copied and jumped
+     * past every stream the left half will use for the right half, so the halves never overlap however
+     * deep the task tree goes. Secure generators are simply created afresh.
+     *
+     * @param parent The generator of the task being divided; it must come from {@link #create(long)}.
+     * @param leftStreams The number of leaf streams the left half will take from its generator.
+     * @return The left half's generator and the right half's generator.
+     */
+    public RandomGenerator[] halves(RandomGenerator parent, long leftStreams) {
+        if (parent instanceof RandomGenerator.SplittableGenerator splittable) {
+            return new RandomGenerator[] {splittable.split(), splittable.split()};
+        }
+        if (parent instanceof RandomGenerator.JumpableGenerator jumpable) {
+            RandomGenerator.JumpableGenerator right = jumpable.copy();
+            for (long i = 0; i < leftStreams; i++) {
+                right.jump();
+            }
+            return new RandomGenerator[] {jumpable.copy(), right};
+        }
+        return new RandomGenerator[] {create(0), create(0)};
+    }
+
+    /**
+     * Finds a generator by its name here or its JDK algorithm name, ignoring case.
+     *
+     * @param name The name, such as {@code xoshiro} or {@code L64X128MixRandom}.
+     * @return The generator choice.
+     * @throws IllegalArgumentException If no generator has that name.
+     */
+    public static ShoeRandom parse(String name) {
+        for (ShoeRandom random : values()) {
+            if (random.name().equalsIgnoreCase(name) || random.algorithm.equalsIgnoreCase(name)) {
+                return random;
+            }
+        }
+        throw new IllegalArgumentException("Unknown random generator: " + name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Retrieves the JDK algorithm name.
+     *
+     * @return The algorithm name.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * The SimulationResult class accumulates the outcomes of simulated rounds and derives the house edge,
+ * outcome rates and their confidence intervals. Partial results from parallel tasks are combined with
+ * {@link #merge(SimulationResult)}. The hands of one table round play against the same dealer hand, so
+ * their results are correlated; each round is treated as one cluster of hands, closed by
+ * {@link #endRound()}, and the intervals are computed from the spread between rounds.
+ */
+public class SimulationResult {
+    /** The z-score of a two-sided 95% confidence interval. */
+    private static final double Z_95 = 1.959964;
+
+    private long hands;
+    private long wins;
+    private long ties;
+    private long losses;
+    private long playerBlackjacks;
+    private long dealerBlackjacks;
+    private long playerCharlies;
+    private long dealerCharlies;
+    private double net;
+
+    // Sums over finished rounds of each round's hand count m, net y and outcome counts c: m^2, y^2, y*m, c^2, c*m
+    private long rounds;
+    private double handSquares;
+    private double netSquares;
+    private double netHands;
+    private double winSquares;
+    private double winHands;
+    private double tieSquares;
+    private double tieHands;
+    private double lossSquares;
+    private double lossHands;
+
+    // The round being recorded
+    private int roundHands;
+    private double roundNet;
+    private int roundWins;
+    private int roundTies;
+    private int roundLosses;
+
+    /**
+     * Records one finished hand of the current round.
+     *
+     * @param result The result code reported by the engine.
+     * @param payout The player's net win or loss in units of the bet.
+     * @param playerHand The player's final hand.
+     * @param dealerHand The dealer's final hand.
+     */
+    public void record(int result, double payout, Hand playerHand, Hand dealerHand) {
+        hands++;
+        roundHands++;
+        if (result == BlackjackEngine.PLAYER_WINS) {
+            wins++;
+            roundWins++;
+        } else if (result == BlackjackEngine.TIE) {
+            ties++;
+            roundTies++;
+        } else {
+            losses++;
+            roundLosses++;
+        }
+
+        if (playerHand.isBlackjack()) {
+            playerBlackjacks++;
+        }
+        if (dealerHand.isBlackjack()) {
+            dealerBlackjacks++;
+        }
+        if (playerHand.isFiveCardCharlie()) {
+            playerCharlies++;
+        }
+        if (dealerHand.isFiveCardCharlie()) {
+            dealerCharlies++;
+        }
+
+        net += payout;
+        roundNet += payout;
+    }
+
+    /**
+     * Closes the current round, whose hands all played against one dealer hand.
+     */
+    public void endRound() {
+        if (roundHands == 0) {
+            return;
+        }
+        double m = roundHands;
+        rounds++;
+        handSquares += m * m;
+        netSquares += roundNet * roundNet;
+        netHands += roundNet * m;
+        winSquares += (double) roundWins * roundWins;
+        winHands += roundWins * m;
+        tieSquares += (double) roundTies * roundTies;
+        tieHands += roundTies * m;
+        lossSquares += (double) roundLosses * roundLosses;
+        lossHands += roundLosses * m;
+
+        roundHands = 0;
+        roundNet = 0;
+        roundWins = 0;
+        roundTies = 0;
+        roundLosses = 0;
+    }
+
+    /**
+     * Adds another result's counts to this one. Both must have ended their last round.
+     *
+     * @param other The result to merge in.
+     * @return This result.
+     */
+    public SimulationResult merge(SimulationResult other) {
+        hands += other.hands;
+        wins += other.wins;
+        ties += other.ties;
+        losses += other.losses;
+        playerBlackjacks += other.playerBlackjacks;
+        dealerBlackjacks += other.dealerBlackjacks;
+        playerCharlies += other.playerCharlies;
+        dealerCharlies += other.dealerCharlies;
+        net += other.net;
+        rounds += other.rounds;
+        handSquares += other.handSquares;
+        netSquares += other.netSquares;
+        netHands += other.netHands;
+        winSquares += other.winSquares;
+        winHands += other.winHands;
+        tieSquares += other.tieSquares;
+        tieHands += other.tieHands;
+        lossSquares += other.lossSquares;
+        lossHands += other.lossHands;
+        return this;
+    }
+
+    /**
+     * Retrieves the number of hands recorded.
+     *
+     * @return The hand count.
+     */
+    public long getHands() {
+        return hands;
+    }
+
+    /**
+     * Retrieves the number of table rounds the hands were played in.
+     *
+     * @return The round count.
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Retrieves the house edge, the dealer's expected gain per unit bet.
+     *
+     * @return The house edge as a fraction of the bet.
+     */
+    public double getHouseEdge() {
+        return hands == 0 ? 0 : -net / hands;
+    }
+
+    /**
+     * Retrieves the half-width of the 95% confidence interval around the house edge.
+     *
+     * @return The margin of error of the house edge.
+     */
+    public double getHouseEdgeMargin() {
+        return margin(net, netSquares, netHands);
+    }
+
+    /**
+     * Retrieves the fraction of rounds won by the player.
+     *
+     * @return The win rate.
+     */
+    public double getWinRate() {
+        return rate(wins);
+    }
+
+    /**
+     * Retrieves the fraction of rounds that were tied.
+     *
+     * @return The tie rate.
+     */
+    public double getTieRate() {
+        return rate(ties);
+    }
+
+    /**
+     * Retrieves the fraction of rounds won by the dealer.
+     *
+     * @return The loss rate.
+     */
+    public double getLossRate() {
+        return rate(losses);
+    }
+
+    /**
+     * Retrieves the fraction of rounds in which the player was dealt a blackjack.
+     *
+     * @return The player blackjack rate.
+     */
+    public double getPlayerBlackjackRate() {
+        return rate(playerBlackjacks);
+    }
+
+    /**
+     * Retrieves the fraction of rounds in which the dealer was dealt a blackjack.
+     *
+     * @return The dealer blackjack rate.
+     */
+    public double getDealerBlackjackRate() {
+        return rate(dealerBlackjacks);
+    }
+
+    /**
+     * Retrieves the fraction of rounds in which the player made a Five-Card Charlie.
+     *
+     * @return The player Five-Card Charlie rate.
+     */
+    public double getPlayerCharlieRate() {
+        return rate(playerCharlies);
+    }
+
+    /**
+     * Retrieves the fraction of rounds in which the dealer made a Five-Card Charlie.
+     *
+     * @return The dealer Five-Card Charlie rate.
+     */
+    public double getDealerCharlieRate() {
+        return rate(dealerCharlies);
+    }
+
+    /**
+     * Computes the fraction of rounds a count represents.
+     *
+     * @param count The number of rounds.
+     * @return The count divided by the number of hands.
+     */
+    private double rate(long count) {
+        return hands == 0 ? 0 : (double) count / hands;
+    }
+
+    /**
+     * Computes the half-width of the 95% confidence interval around a per-hand mean, with each round
+     * as one cluster. The mean is a ratio of per-round sums, sum(y) / sum(m), whose variance is
+     * sum((y - mean * m)^2) / (rounds - 1) over rounds * meanHands^2. With one hand per round this is
+     * the usual variance of the mean of independent hands.
+     *
+     * @param total The sum of y over every round.
+     * @param squares The sum of y^2 over every round.
+     * @param crossHands The sum of y * m over every round.
+     * @return The margin of error of the mean.
+     */
+    private double margin(double total, double squares, double crossHands) {
+        if (rounds < 2) {
+            return 0;
+        }
+        double mean = total / hands;
+        double residuals = squares - 2 * mean * crossHands + mean * mean * handSquares;
+        double meanHands = (double) hands / rounds;
+        double variance = Math.max(0, residuals) / (rounds - 1) / (rounds * meanHands * meanHands);
+        return Z_95 * Math.sqrt(variance);
+    }
+
+    /**
+     * Formats the result as a human-readable report.
+     *
+     * @return The report text.
+     */
+    @Override
+    public String toString() {
+        return String.format(
+                "Hands: %d%n"
+                        + "House Edge: %.4f%% +/- %.4f%%%n"
+                        + "Win Rate: %.4f%% +/- %.4f%%%n"
+                        + "Tie Rate: %.4f%% +/- %.4f%%%n"
+                        + "Loss Rate: %.4f%% +/- %.4f%%%n"
+                        + "Player Blackjacks: %.4f%%%n"
+                        + "Dealer Blackjacks: %.4f%%%n"
+                        + "Player Five-Card Charlies: %.4f%%%n"
+                        + "Dealer Five-Card Charlies: %.4f%%",
+                hands,
+                100 * getHouseEdge(), 100 * getHouseEdgeMargin(),
+                100 * getWinRate(), 100 * margin(wins, winSquares, winHands),
+                100 * getTieRate(), 100 * margin(ties, tieSquares, tieHands),
+                100 * getLossRate(), 100 * margin(losses, lossSquares, lossHands),
+                100 * getPlayerBlackjackRate(),
+                100 * getDealerBlackjackRate(),
+                100 * getPlayerCharlieRate(),
+                100 * getDealerCharlieRate()
+        );
+    }
+}
@@ -0,0 +1,82 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The StartupTimer class records when each phase of application startup finished, in milliseconds
+ * since the JVM was launched, so time-to-interactive can be measured and compared between builds.
+ * Phases may finish on any thread and in any order; only the first mark of each phase counts.
+ */
+public class StartupTimer {
+    /** Phase reached when {@code main} starts running. */
+    public static final String MAIN = "main";
+    /** Phase reached once the game and its player stats are loaded. */
+    public static final String GAME_READY = "game ready";
+    /** Phase reached once the welcome screen is on screen and accepts input. */
+    public static final String INTERACTIVE = "interactive";
+    /** Phase reached once the welcome background is decoded and scaled. */
+    public static final String BACKGROUND_LOADED = "background loaded";
+    /** Phase reached once every card image is decoded and scaled. */
+    public static final String CARDS_LOADED = "cards loaded";
+
+    private static final StartupTimer INSTANCE = new StartupTimer();
+
+    private final long originNanos;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * Constructs a timer whose clock starts at the JVM's launch.
+     */
+    private StartupTimer() {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        originNanos = System.nanoTime() - uptimeMillis * 1_000_000L;
+    }
+
+    /**
+     * Retrieves the timer shared by the whole application.
+     *
+     * @return The timer.
+     */
+    public static StartupTimer get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks a phase as finished now, unless it has already been marked.
+     *
+     * @param phase The phase name.
+     */
+    public synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, (System.nanoTime() - originNanos) / 1_000_000L);
+    }
+
+    /**
+     * Retrieves when a phase finished.
+     *
+     * @param phase The phase name.
+     * @return Milliseconds from JVM launch to the end of the phase, or -1 if it has not finished.
+     */
+    public synchronized long getMillis(String phase) {
+        return phases.getOrDefault(phase, -1L);
+    }
+
+    /**
+     * Summarizes every finished phase in the order they finished.
+     *
+     * @return The summary, such as {@code main 120 ms, game ready 180 ms, interactive 410 ms}.
+     */
+    @Override
+    public synchronized String toString() {
+        if (phases.isEmpty()) {
+            return "no phases";
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(phase.getKey()).append(' ').append(phase.getValue()).append(" ms");
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The StatsStore class keeps every player's {@link PlayerStats} in memory and persists them in the
+ * background. Recording a session only updates the in-memory map and schedules a flush; flushes
+ * requested while one is pending are coalesced into a single write. Each write goes to a temporary
+ * file that then replaces the stats file with an atomic rename, so a crash mid-write leaves the
+ * previous file intact instead of a torn one. Leaderboard queries are answered from memory.
+ *
+ * <p>The file is plain text, one player per line, fields separated by tabs:
+ * {@code name, high score, hands won, highest bank, sessions, total score, last score}.
+ * When no stats file exists yet, the single score in the legacy {@code high_score.txt} is
+ * carried over as the current player's high score.
+ */
+public class StatsStore implements Closeable {
+    /** The file the shared store is kept in. */
+    public static final String DEFAULT_FILE_PATH = "player_stats.txt";
+    /** The file the single high score was kept in before per-player stats. */
+    public static final String LEGACY_HIGH_SCORE_PATH = "high_score.txt";
+    /** How long a flush waits for further updates to batch with, in milliseconds. */
+    public static final long FLUSH_DELAY_MILLIS = 250;
+
+    private static final String HEADER = "# blackjack player stats v1";
+
+    private static StatsStore shared;
+
+    private final File file;
+    private final Map<String, PlayerStats> stats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    /**
+     * Opens a store backed by the given file, loading whatever it already holds.
+     *
+     * @param file The stats file.
+     */
+    public StatsStore(File file) {
+        this.file = file;
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+    /**
+     * Retrieves the store shared by the whole application, opening it on first use. Pending writes
+     * are flushed when the application exits.
+     *
+     * @return The shared store.
+     */
+    public static synchronized StatsStore getShared() {
+        if (shared == null) {
+            StatsStore store = new StatsStore(new File(DEFAULT_FILE_PATH));
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "stats-shutdown"));
+            shared = store;
+        }
+        return shared;
+    }
+
+    /**
+     * Retrieves the name of the player using this machine.
+     *
+     * @return The operating system user name.
+     */
+    public static String currentPlayer() {
+        return System.getProperty("user.name", "player");
+    }
+
+    /**
+     * Retrieves a player's statistics.
+     *
+     * @param player The player's name.
+     * @return The statistics, empty if the player has none recorded.
+     */
+    public PlayerStats getStats(String player) {
+        PlayerStats playerStats = stats.get(sanitize(player));
+        return playerStats != null ? playerStats : PlayerStats.empty(sanitize(player));
+    }
+
+    /**
+     * Records a finished session and schedules it to be written.
+     *
+     * @param player The player's name.
+     * @param score The session's score, the final balance minus the starting balance.
+     * @param handsWon The hands won in the session.
+     * @param highestBank The highest balance reached in the session.
+     * @return The player's updated statistics.
+     */
+    public PlayerStats recordSession(String player, int score, int handsWon, int highestBank) {
+        PlayerStats updated = stats.compute(sanitize(player), (name, current) ->
+                (current != null ? current : PlayerStats.empty(name)).withSession(score, handsWon, highestBank));
+        scheduleFlush();
+        return updated;
+    }
+
+    /**
+     * Retrieves the players with the best high scores.
+     *
+     * @param count The most players to return.
+     * @return The players' statistics, best first.
+     */
+    public List<PlayerStats> getTopPlayers(int count) {
+        List<PlayerStats> players = new ArrayList<>(stats.values());
+        players.sort(Comparator.comparingInt(PlayerStats::getHighScore).reversed()
+                .thenComparing(Comparator.comparingLong(PlayerStats::getHandsWon).reversed())
+                .thenComparing(PlayerStats::getPlayer));
+        return players.subList(0, Math.min(count, players.size()));
+    }
+
+    /**
+     * Schedules a write unless one is already pending, in which case it will include this update.
+     */
+    private void scheduleFlush() {
+        if (flushPending.compareAndSet(false, true)) {
+            writer.schedule(this::flushNow, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes every player's statistics to a temporary file and renames it over the stats file.
+     */
+    private void flushNow() {
+        synchronized (writeLock) {
+            // Clear the flag before taking the snapshot, so a later update schedules another write
+            if (!flushPending.getAndSet(false)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                try (FileOutputStream stream = new FileOutputStream(temp);
+                     Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                    out.write(HEADER);
+                    out.write('\n');
+                    for (PlayerStats playerStats : stats.values()) {
+                        out.write(format(playerStats));
+                        out.write('\n');
+                    }
+                    out.flush();
+                    stream.getFD().sync();
+                }
+                try {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                EngineMetrics.get().recordStatsSave(System.nanoTime() - start);
+            } catch (IOException e) {
+                System.err.println("Failed to save player stats: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes any pending statistics on the writer thread.
+     *
+     * @return A future completed once the statistics are on disk.
+     */
+    public CompletableFuture<Void> flush() {
+        flushPending.set(true);
+        return CompletableFuture.runAsync(this::flushNow, writer);
+    }
+
+    /**
+     * Writes any pending statistics on the calling thread and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        flushNow();
+    }
+
+    /**
+     * Loads the stats file, or migrates the legacy high score if there is no stats file yet.
+     * Unreadable lines are skipped rather than discarding the whole file.
+     */
+    private void load() {
+        if (!file.exists()) {
+            migrateLegacyHighScore();
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                PlayerStats playerStats = parse(line);
+                if (playerStats != null) {
+                    stats.put(playerStats.getPlayer(), playerStats);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load player stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carries the single legacy high score over to the current player and schedules the first write.
+     */
+    private void migrateLegacyHighScore() {
+        File legacy = new File(LEGACY_HIGH_SCORE_PATH);
+        if (!legacy.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(legacy))) {
+            String line = reader.readLine();
+            int highScore = line != null ? Integer.parseInt(line.trim()) : 0;
+            if (highScore > 0) {
+                String player = sanitize(currentPlayer());
+                stats.put(player, new PlayerStats(player, highScore, 0, 0, 0, 0, 0));
+                scheduleFlush();
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to migrate legacy high score: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formats one player's statistics as a line of the stats file.
+     *
+     * @param playerStats The statistics.
+     * @return The line, without a line break.
+     */
+    private static String format(PlayerStats playerStats) {
+        return playerStats.getPlayer() + '\t' + playerStats.getHighScore() + '\t' + playerStats.getHandsWon()
+                + '\t' + playerStats.getHighestBank() + '\t' + playerStats.getSessions()
+                + '\t' + playerStats.getTotalScore() + '\t' + playerStats.getLastScore();
+    }
+
+    /**
+     * Parses one line of the stats file.
+     *
+     * @param line The line.
+     * @return The statistics, or null if the line is malformed.
+     */
+    private static PlayerStats parse(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length != 7) {
+            return null;
+        }
+        try {
+            return new PlayerStats(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                    Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Long.parseLong(fields[5]),
+                    Integer.parseInt(fields[6]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes the characters the file format uses as separators from a player's name.
+     *
+     * @param player The player's name.
+     * @return The name with tabs and line breaks replaced by spaces.
+     */
+    private static String sanitize(String player) {
+        return player.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
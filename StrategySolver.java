@@ -0,0 +1,131 @@
+/**
+ * The StrategySolver class computes the expected value of hitting and standing for every player
+ * state against every dealer upcard under a {@link RuleSet}: the dealer draws to 17 (or past a soft
+ * 17), a Charlie counts as 21, ties push, every non-blackjack win pays even money and a dealer
+ * blackjack ends the round at the deal. Dealer outcomes come from {@link DealerOddsCalculator} for a full shoe less the
+ * upcard, conditioned on the dealer not holding blackjack. Player draws use the same composition,
+ * so each decision depends only on the hand total, softness and card count, not on the exact cards.
+ */
+public class StrategySolver {
+    private final RuleSet rules;
+    private final DealerOddsCalculator dealerOddsCalculator;
+
+    /**
+     * Constructs a solver for a rule set.
+     *
+     * @param rules The rules of the game.
+     */
+    public StrategySolver(RuleSet rules) {
+        this.rules = rules;
+        dealerOddsCalculator = new DealerOddsCalculator(rules);
+    }
+
+    /**
+     * Solves every decision for the rule set's shoe.
+     *
+     * @return The decision table.
+     */
+    public StrategyTable solve() {
+        int decks = rules.getDecks();
+        StrategyTable table = new StrategyTable(rules);
+
+        for (int upClass = 0; upClass < DealerOddsCalculator.VALUE_CLASSES; upClass++) {
+            int[] composition = fullShoe(decks);
+            composition[upClass]--;
+
+            // Any card of the right value class stands in for the upcard
+            int upcard = upClass == 0 ? Card.ACE_RANK : upClass - 1;
+            double[] dealerOdds = DealerOddsCalculator.withoutBlackjack(dealerOddsCalculator.compute(upcard, composition));
+
+            double[] drawOdds = new double[DealerOddsCalculator.VALUE_CLASSES];
+            int total = 0;
+            for (int count : composition) {
+                total += count;
+            }
+            for (int c = 0; c < drawOdds.length; c++) {
+                drawOdds[c] = (double) composition[c] / total;
+            }
+
+            solveUpcard(table, upClass, dealerOdds, drawOdds);
+        }
+        return table;
+    }
+
+    /**
+     * Fills the table for one upcard, working down from the highest hard totals so every hit can
+     * look up the states it leads to.
+     *
+     * @param table The table to fill.
+     * @param upClass The value class of the dealer's upcard.
+     * @param dealerOdds The dealer's outcome distribution, conditioned on no blackjack.
+     * @param drawOdds The probability of drawing each value class.
+     */
+    private void solveUpcard(StrategyTable table, int upClass, double[] dealerOdds, double[] drawOdds) {
+        for (int hard = 21; hard >= 1; hard--) {
+            for (int soft = 1; soft >= 0; soft--) {
+                for (int cards = StrategyTable.MAX_TRACKED_CARDS; cards >= 1; cards--) {
+                    double standValue = standValue(handValue(hard, soft == 1, cards), dealerOdds);
+
+                    double hitValue = 0;
+                    int nextCards = Math.min(cards + 1, StrategyTable.MAX_TRACKED_CARDS);
+                    for (int c = 0; c < drawOdds.length; c++) {
+                        int nextHard = hard + c + 1;
+                        boolean nextSoft = soft == 1 || c == 0;
+                        double next = nextHard > 21 ? -1 : table.bestValue(upClass, nextHard, nextSoft, nextCards);
+                        hitValue += drawOdds[c] * next;
+                    }
+
+                    table.set(upClass, hard, soft == 1, cards, standValue, hitValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a hand's value the way {@link Hand} does, with at most one ace counted as 11 and a
+     * Charlie counted as 21.
+     *
+     * @param hard The hand total with aces counted as 1.
+     * @param hasAce Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @return The hand value.
+     */
+    private int handValue(int hard, boolean hasAce, int cards) {
+        int value = (hasAce && hard + 10 <= 21) ? hard + 10 : hard;
+        if (cards == rules.getCharlieCards() && value < 21) {
+            value = 21;
+        }
+        return value;
+    }
+
+    /**
+     * Computes the expected value of standing on a total against the dealer's outcome distribution.
+     *
+     * @param value The player's hand value.
+     * @param dealerOdds The dealer's outcome distribution.
+     * @return The expected win or loss in units of the bet.
+     */
+    private static double standValue(int value, double[] dealerOdds) {
+        double expected = dealerOdds[DealerOddsCalculator.OUTCOME_BUST];
+        for (int i = DealerOddsCalculator.OUTCOME_17; i <= DealerOddsCalculator.OUTCOME_21; i++) {
+            expected += dealerOdds[i] * Integer.signum(value - (BlackjackEngine.DEALER_STANDS_ON + i));
+        }
+        expected += dealerOdds[DealerOddsCalculator.OUTCOME_CHARLIE] * Integer.signum(value - 21);
+        return expected;
+    }
+
+    /**
+     * Builds the composition of a full shoe by value class.
+     *
+     * @param decks The number of decks.
+     * @return The card count of each value class.
+     */
+    private static int[] fullShoe(int decks) {
+        int[] composition = new int[DealerOddsCalculator.VALUE_CLASSES];
+        for (int c = 0; c < composition.length - 1; c++) {
+            composition[c] = 4 * decks;
+        }
+        composition[composition.length - 1] = 16 * decks;
+        return composition;
+    }
+}
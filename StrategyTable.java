@@ -0,0 +1,227 @@
+import java.io.*;
+
+/**
+ * The StrategyTable class holds the solved expected values of hitting and standing for every player
+ * state against every dealer upcard, indexed by hard total, softness and card count so a decision is
+ * a single array lookup. Tables are cached on disk per rule set, so after the first solve they load
+ * in a single read instead of being recomputed.
+ */
+public class StrategyTable implements PlayerStrategy {
+    /** Card counts above this are treated alike, since no Charlie needs more than seven cards. */
+    public static final int MAX_TRACKED_CARDS = RuleSet.MAX_CHARLIE_CARDS + 1;
+
+    private static final String CACHE_DIRECTORY = "strategy_cache";
+    private static final int MAGIC = 0x424A5354; // "BJST"
+    private static final int VERSION = 2;
+    private static final int HARD_TOTALS = 22;
+    private static final int ENTRIES = DealerOddsCalculator.VALUE_CLASSES * HARD_TOTALS * 2 * (MAX_TRACKED_CARDS + 1);
+
+    private final RuleSet rules;
+    private final double[] standValues;
+    private final double[] hitValues;
+
+    /**
+     * Constructs an empty table for a shoe of the given size under the default rules.
+     *
+     * @param decks The number of decks in the shoe.
+     */
+    public StrategyTable(int decks) {
+        this(RuleSet.DEFAULT.withDecks(decks));
+    }
+
+    /**
+     * Constructs an empty table for a rule set.
+     *
+     * @param rules The rules the table is solved for.
+     */
+    public StrategyTable(RuleSet rules) {
+        this.rules = rules;
+        standValues = new double[ENTRIES];
+        hitValues = new double[ENTRIES];
+    }
+
+    /**
+     * Loads the table for a shoe of the given size under the default rules.
+     *
+     * @param decks The number of decks in the shoe.
+     * @return The decision table.
+     */
+    public static StrategyTable forDecks(int decks) {
+        return forRules(RuleSet.DEFAULT.withDecks(decks));
+    }
+
+    /**
+     * Loads the table for a rule set from the disk cache, solving and caching it first if no valid
+     * cached copy exists.
+     *
+     * @param rules The rules of the game.
+     * @return The decision table.
+     */
+    public static StrategyTable forRules(RuleSet rules) {
+        File file = cacheFile(rules);
+        StrategyTable table = load(file, rules);
+        if (table == null) {
+            table = new StrategySolver(rules).solve();
+            table.save(file);
+        }
+        return table;
+    }
+
+    /**
+     * Computes the array index of a player state.
+     *
+     * @param upClass The value class of the dealer's upcard.
+     * @param hard The hand total with aces counted as 1.
+     * @param soft Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @return The index into the value arrays.
+     */
+    private static int index(int upClass, int hard, boolean soft, int cards) {
+        return ((upClass * HARD_TOTALS + hard) * 2 + (soft ? 1 : 0)) * (MAX_TRACKED_CARDS + 1)
+                + Math.min(cards, MAX_TRACKED_CARDS);
+    }
+
+    /**
+     * Records the solved values of one player state.
+     *
+     * @param upClass The value class of the dealer's upcard.
+     * @param hard The hand total with aces counted as 1.
+     * @param soft Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @param standValue The expected value of standing.
+     * @param hitValue The expected value of hitting and then playing on optimally.
+     */
+    void set(int upClass, int hard, boolean soft, int cards, double standValue, double hitValue) {
+        int index = index(upClass, hard, soft, cards);
+        standValues[index] = standValue;
+        hitValues[index] = hitValue;
+    }
+
+    /**
+     * Retrieves the expected value of the better decision in a player state.
+     *
+     * @param upClass The value class of the dealer's upcard.
+     * @param hard The hand total with aces counted as 1.
+     * @param soft Whether the hand holds an ace.
+     * @param cards The number of cards in the hand.
+     * @return The larger of the stand and hit values.
+     */
+    double bestValue(int upClass, int hard, boolean soft, int cards) {
+        int index = index(upClass, hard, soft, cards);
+        return Math.max(standValues[index], hitValues[index]);
+    }
+
+    @Override
+    public boolean shouldHit(Hand playerHand, int dealerUpcard) {
+        int index = index(DealerOddsCalculator.valueClass(dealerUpcard), playerHand.hardTotal(),
+                playerHand.aceCount() > 0, playerHand.size());
+        return hitValues[index] > standValues[index];
+    }
+
+    /**
+     * Retrieves the expected value of standing on a hand.
+     *
+     * @param playerHand The player's hand, which must not be bust.
+     * @param dealerUpcard The dealer's face-up card.
+     * @return The expected win or loss in units of the bet.
+     */
+    public double getStandValue(Hand playerHand, int dealerUpcard) {
+        return standValues[index(DealerOddsCalculator.valueClass(dealerUpcard), playerHand.hardTotal(),
+                playerHand.aceCount() > 0, playerHand.size())];
+    }
+
+    /**
+     * Retrieves the expected value of hitting a hand and then playing on optimally.
+     *
+     * @param playerHand The player's hand, which must not be bust.
+     * @param dealerUpcard The dealer's face-up card.
+     * @return The expected win or loss in units of the bet.
+     */
+    public double getHitValue(Hand playerHand, int dealerUpcard) {
+        return hitValues[index(DealerOddsCalculator.valueClass(dealerUpcard), playerHand.hardTotal(),
+                playerHand.aceCount() > 0, playerHand.size())];
+    }
+
+    /**
+     * Retrieves the number of decks the table was solved for.
+     *
+     * @return The deck count.
+     */
+    public int getDecks() {
+        return rules.getDecks();
+    }
+
+    /**
+     * Retrieves the rules the table was solved for.
+     *
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Locates the cache file for a rule set. Only the deck count, the soft 17 rule and the Charlie
+     * rule change a hit or stand decision, so rule sets that differ in anything else share a file.
+     *
+     * @param rules The rules of the game.
+     * @return The cache file.
+     */
+    private static File cacheFile(RuleSet rules) {
+        return new File(CACHE_DIRECTORY, "strategy_" + rules.getDecks() + "_decks"
+                + (rules.dealerHitsSoft17() ? "_h17" : "")
+                + (rules.getCharlieCards() == Hand.CHARLIE_CARDS ? "" : "_charlie" + rules.getCharlieCards()) + ".bin");
+    }
+
+    /**
+     * Reads a table from a cache file.
+     *
+     * @param file The cache file.
+     * @param rules The rules the table must be solved for.
+     * @return The table, or null if the file is missing, stale or unreadable.
+     */
+    private static StrategyTable load(File file, RuleSet rules) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != rules.getDecks()
+                    || in.readBoolean() != rules.dealerHitsSoft17() || in.readInt() != rules.getCharlieCards()
+                    || in.readInt() != ENTRIES) {
+                return null;
+            }
+            StrategyTable table = new StrategyTable(rules);
+            for (int i = 0; i < ENTRIES; i++) {
+                table.standValues[i] = in.readDouble();
+                table.hitValues[i] = in.readDouble();
+            }
+            return table;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the table to a cache file.
+     *
+     * @param file The cache file.
+     */
+    private void save(File file) {
+        file.getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rules.getDecks());
+            out.writeBoolean(rules.dealerHitsSoft17());
+            out.writeInt(rules.getCharlieCards());
+            out.writeInt(ENTRIES);
+            for (int i = 0; i < ENTRIES; i++) {
+                out.writeDouble(standValues[i]);
+                out.writeDouble(hitValues[i]);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save strategy table: " + e.getMessage());
+        }
+    }
+}
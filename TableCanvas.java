@@ -0,0 +1,324 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * The TableCanvas class draws the dealer's hand across the top half of the table and the player's
+ * hand across the bottom half from already scaled card images, in a single double-buffered component.
+ * Dealing a card only records its image in a fixed slot, so a round creates no Swing components and
+ * needs no layout pass. Each new card slides in from the shoe on a shared frame timer, and every
+ * change repaints only the region of the cards it touches. All methods run on the event thread.
+ */
+public class TableCanvas extends JComponent {
+    // Gap between neighbouring cards and between the cards and the edges of the table
+    private static final int GAP = 5;
+    // How long a card takes to slide in from the shoe, and the least time between two cards setting off
+    private static final int DEAL_MILLIS = 180;
+    private static final int DEAL_STAGGER_MILLIS = 90;
+    // Interval between animation frames, about 60 per second
+    private static final int FRAME_MILLIS = 16;
+
+    private final int cardWidth;
+    private final int cardHeight;
+    private final Row dealer = new Row(true);
+    private final Row player = new Row(false);
+    private final Timer frameTimer;
+    private long lastDealStart;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param cardWidth The width the card images are drawn at.
+     * @param cardHeight The height the card images are drawn at.
+     */
+    public TableCanvas(int cardWidth, int cardHeight) {
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+        setOpaque(true);
+        setDoubleBuffered(true);
+        setPreferredSize(new Dimension(4 * (cardWidth + GAP), 2 * (cardHeight + 2 * GAP)));
+        frameTimer = new Timer(FRAME_MILLIS, e -> animate());
+    }
+
+    /**
+     * Deals a card to the player's hand.
+     *
+     * @param image The scaled card image.
+     */
+    public void addPlayerCard(BufferedImage image) {
+        add(player, image);
+    }
+
+    /**
+     * Deals a card to the dealer's hand.
+     *
+     * @param image The scaled card image.
+     */
+    public void addDealerCard(BufferedImage image) {
+        add(dealer, image);
+    }
+
+    /**
+     * Shows the dealer's whole hand, turning the hidden card face up. Cards already on the table keep
+     * their place and only the slots whose image changed are repainted; any extra cards are dealt.
+     *
+     * @param images The scaled images of the dealer's cards, in order.
+     */
+    public void setDealerCards(BufferedImage[] images) {
+        int shown = Math.min(dealer.count, images.length);
+        for (int i = 0; i < shown; i++) {
+            if (dealer.images[i] != images[i]) {
+                dealer.images[i] = images[i];
+                repaint(cardBounds(dealer, i, dealer.count));
+            }
+        }
+        for (int i = shown; i < images.length; i++) {
+            add(dealer, images[i]);
+        }
+    }
+
+    /**
+     * Removes every card from the table.
+     */
+    public void clear() {
+        repaint(rowBounds(dealer, dealer.count));
+        repaint(rowBounds(player, player.count));
+        dealer.clear();
+        player.clear();
+        frameTimer.stop();
+    }
+
+    /**
+     * Places a card in the next slot of a row and starts it sliding in from the shoe.
+     *
+     * @param row The row.
+     * @param image The scaled card image.
+     */
+    private void add(Row row, BufferedImage image) {
+        if (row.count == Hand.MAX_CARDS) {
+            return;
+        }
+
+        // Space out cards dealt together so they arrive one after another
+        long now = System.currentTimeMillis();
+        long start = Math.max(now, lastDealStart + DEAL_STAGGER_MILLIS);
+        lastDealStart = start;
+
+        Rectangle before = rowBounds(row, row.count);
+        int slot = row.count++;
+        row.images[slot] = image;
+        row.dealtAt[slot] = start;
+        row.drawnX[slot] = shoeX();
+        row.drawnY[slot] = shoeY();
+        row.animating++;
+
+        // The row re-centers around its new card, so both its old and new extents are dirty
+        repaint(before.union(rowBounds(row, row.count)));
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+
+    /**
+     * Advances every sliding card by one frame, repainting the area each one moved across.
+     */
+    private void animate() {
+        long now = System.currentTimeMillis();
+        boolean moving = animateRow(dealer, now);
+        moving |= animateRow(player, now);
+        if (!moving) {
+            frameTimer.stop();
+        }
+    }
+
+    /**
+     * Advances the sliding cards of one row by one frame.
+     *
+     * @param row The row.
+     * @param now The current time in milliseconds.
+     * @return True if any card in the row is still sliding.
+     */
+    private boolean animateRow(Row row, long now) {
+        if (row.animating == 0) {
+            return false;
+        }
+        row.animating = 0;
+        for (int i = 0; i < row.count; i++) {
+            if (row.dealtAt[i] == 0) {
+                continue;
+            }
+            Point target = cardPosition(row, i, row.count);
+            double progress = Math.min(1, Math.max(0, (now - row.dealtAt[i]) / (double) DEAL_MILLIS));
+            double eased = 1 - (1 - progress) * (1 - progress);
+            int x = (int) Math.round(shoeX() + (target.x - shoeX()) * eased);
+            int y = (int) Math.round(shoeY() + (target.y - shoeY()) * eased);
+
+            repaint(new Rectangle(row.drawnX[i], row.drawnY[i], cardWidth, cardHeight)
+                    .union(new Rectangle(x, y, cardWidth, cardHeight)));
+            row.drawnX[i] = x;
+            row.drawnY[i] = y;
+            if (progress < 1) {
+                row.animating++;
+            } else {
+                row.dealtAt[i] = 0;
+            }
+        }
+        return row.animating > 0;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        paintRow(g, dealer, clip);
+        paintRow(g, player, clip);
+    }
+
+    /**
+     * Draws the cards of one row that fall inside the clip, settled cards first and sliding cards on top.
+     *
+     * @param g The graphics context.
+     * @param row The row.
+     * @param clip The region being repainted.
+     */
+    private void paintRow(Graphics g, Row row, Rectangle clip) {
+        for (int pass = 0; pass < 2; pass++) {
+            boolean sliding = pass == 1;
+            for (int i = 0; i < row.count; i++) {
+                if ((row.dealtAt[i] != 0) != sliding) {
+                    continue;
+                }
+                int x;
+                int y;
+                if (sliding) {
+                    x = row.drawnX[i];
+                    y = row.drawnY[i];
+                } else {
+                    Point position = cardPosition(row, i, row.count);
+                    x = position.x;
+                    y = position.y;
+                }
+                if (clip.intersects(x, y, cardWidth, cardHeight)) {
+                    g.drawImage(row.images[i], x, y, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes where a settled card is drawn. The row is centered, and once it is wider than the
+     * table the cards overlap evenly rather than running off the edge.
+     *
+     * @param row The row.
+     * @param slot The card's slot.
+     * @param count The number of cards in the row.
+     * @return The card's top-left corner.
+     */
+    private Point cardPosition(Row row, int slot, int count) {
+        int step = step(count);
+        int rowWidth = count == 0 ? 0 : (count - 1) * step + cardWidth;
+        int x = Math.max(GAP, (getWidth() - rowWidth) / 2) + slot * step;
+        int half = getHeight() / 2;
+        int y = (row.top ? 0 : half) + Math.max(GAP, (half - cardHeight) / 2);
+        return new Point(x, y);
+    }
+
+    /**
+     * Computes the horizontal distance between neighbouring cards in a row.
+     *
+     * @param count The number of cards in the row.
+     * @return The step in pixels.
+     */
+    private int step(int count) {
+        if (count <= 1) {
+            return cardWidth + GAP;
+        }
+        int fit = (getWidth() - 2 * GAP - cardWidth) / (count - 1);
+        return Math.max(1, Math.min(cardWidth + GAP, fit));
+    }
+
+    /**
+     * Computes the area a settled card covers.
+     *
+     * @param row The row.
+     * @param slot The card's slot.
+     * @param count The number of cards in the row.
+     * @return The card's bounds.
+     */
+    private Rectangle cardBounds(Row row, int slot, int count) {
+        Point position = cardPosition(row, slot, count);
+        return new Rectangle(position.x, position.y, cardWidth, cardHeight);
+    }
+
+    /**
+     * Computes the area the settled cards of a row cover.
+     *
+     * @param row The row.
+     * @param count The number of cards in the row.
+     * @return The row's bounds, empty if it has no cards.
+     */
+    private Rectangle rowBounds(Row row, int count) {
+        if (count == 0) {
+            return new Rectangle();
+        }
+        return cardBounds(row, 0, count).union(cardBounds(row, count - 1, count));
+    }
+
+    /**
+     * Retrieves the x coordinate cards are dealt from, just off the table's top right corner.
+     *
+     * @return The x coordinate.
+     */
+    private int shoeX() {
+        return getWidth() - cardWidth - GAP;
+    }
+
+    /**
+     * Retrieves the y coordinate cards are dealt from.
+     *
+     * @return The y coordinate.
+     */
+    private int shoeY() {
+        return -cardHeight;
+    }
+
+    /**
+     * One hand's cards: a fixed set of slots holding each card's image, when it set off from the
+     * shoe (0 once it has arrived) and where it was last drawn while sliding.
+     */
+    private static class Row {
+        final boolean top;
+        final BufferedImage[] images = new BufferedImage[Hand.MAX_CARDS];
+        final long[] dealtAt = new long[Hand.MAX_CARDS];
+        final int[] drawnX = new int[Hand.MAX_CARDS];
+        final int[] drawnY = new int[Hand.MAX_CARDS];
+        int count;
+        int animating;
+
+        /**
+         * Constructs an empty row.
+         *
+         * @param top True for the dealer's row at the top of the table.
+         */
+        Row(boolean top) {
+            this.top = top;
+        }
+
+        /**
+         * Removes every card from the row.
+         */
+        void clear() {
+            for (int i = 0; i < count; i++) {
+                images[i] = null;
+                dealtAt[i] = 0;
+            }
+            count = 0;
+            animating = 0;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The TableServer class hosts independent Blackjack tables over a local line-based socket protocol
+ * (see {@link TableSession}). Every connection is its own table with its own shoe and is served by
+ * its own virtual thread, so thousands of tables run side by side with no lock shared between them.
+ * Given a {@link HandHistoryLog}, every table appends its finished rounds to it under its own session id,
+ * and given a {@link ResultExporter.SharedSink}, every table streams its rounds through it, taking a
+ * stripe's lock only for as long as it writes a row.
+ * Every shoe owns its own generator of the server's {@link ShoeRandom} kind and, unless that is
+ * {@link ShoeRandom#SECURE}, is seeded; given a recordings directory each table's {@link SessionRecording}
+ * is saved there when its client leaves, ready for {@link SessionReplayer}.
+ */
+public class TableServer implements Closeable {
+    /** The port the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 21021;
+
+    private final ServerSocket serverSocket;
+    private final int decks;
+    private final HandHistoryLog history;
+    private final File recordingsDirectory;
+    private final AtomicInteger openTables = new AtomicInteger();
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final Thread acceptThread;
+    private volatile ResultExporter.SharedSink exportSink;
+    private volatile ShoeRandom random = ShoeRandom.SPLITTABLE;
+
+    /**
+     * Starts a server on the loopback interface.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param decks The number of decks in each table's shoe.
+     * @throws IOException If the port cannot be bound.
+     */
+    public TableServer(int port, int decks) throws IOException {
+        this(port, decks, null);
+    }
+
+    /**
+     * Starts a server on the loopback interface that records every finished round.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param decks The number of decks in each table's shoe.
+     * @param history The log to append rounds to, or null to keep no history.
+     * @throws IOException If the port cannot be bound.
+     */
+    public TableServer(int port, int decks, HandHistoryLog history) throws IOException {
+        this(port, decks, history, null);
+    }
+
+    /**
+     * Starts a server on the loopback interface that records every finished round and session.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param decks The number of decks in each table's shoe.
+     * @param history The log to append rounds to, or null to keep no history.
+     * @param recordingsDirectory The directory to save session recordings in, or null to discard them.
+     * @throws IOException If the port cannot be bound.
+     */
+    public TableServer(int port, int decks, HandHistoryLog history, File recordingsDirectory) throws IOException {
+        this.decks = decks;
+        this.history = history;
+        this.recordingsDirectory = recordingsDirectory;
+        if (recordingsDirectory != null) {
+            recordingsDirectory.mkdirs();
+        }
+        serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        acceptThread = Thread.ofPlatform().name("table-server-accept").daemon(true).start(this::acceptLoop);
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a virtual thread for each.
+     */
+    private void acceptLoop() {
+        Thread.Builder tableThreads = Thread.ofVirtual().name("table-", 0);
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                tableThreads.start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Failed to accept table connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one table until its client quits or disconnects.
+     *
+     * @param socket The client connection.
+     */
+    private void serve(Socket socket) {
+        openTables.incrementAndGet();
+        TableSession session = null;
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            Shoe shoe = new Shoe(decks, Shoe.DEFAULT_PENETRATION, Shoe.newSeed(), random);
+            session = new TableSession(shoe, history, nextSession.getAndIncrement());
+            session.setExportSink(exportSink);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = session.handle(line);
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+                if (reply.equals("BYE")) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; its table simply closes
+        } finally {
+            openTables.decrementAndGet();
+            if (session != null) {
+                saveRecording(session.getRecording());
+            }
+        }
+    }
+
+    /**
+     * Saves a finished table's recording, if recordings are kept and any round was played.
+     *
+     * @param recording The table's recording.
+     */
+    private void saveRecording(SessionRecording recording) {
+        if (recordingsDirectory == null || recording == null || recording.getRounds() == 0) {
+            return;
+        }
+        try {
+            recording.save(new File(recordingsDirectory, recording.getFileName()));
+        } catch (IOException e) {
+            System.err.println("Failed to save session recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets the sink tables opened from now on stream their rounds to. The sink is shared by every table
+     * and fills whole blocks from their rounds together; the caller closes it, then its exporter, once
+     * the tables are done.
+     *
+     * @param sink A shared sink of a round exporter, or null to export nothing.
+     */
+    public void setExportSink(ResultExporter.SharedSink sink) {
+        this.exportSink = sink;
+    }
+
+    /**
+     * Sets the kind of generator the shoes of tables opened from now on shuffle with. Tables using
+     * {@link ShoeRandom#SECURE} cannot be replayed, so they save no recording.
+     *
+     * @param random The generator choice.
+     */
+    public void setRandom(ShoeRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Retrieves the port the server is listening on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Retrieves the number of tables currently connected.
+     *
+     * @return The open table count.
+     */
+    public int getOpenTables() {
+        return openTables.get();
+    }
+
+    /**
+     * Stops accepting new tables. Tables already connected run until their clients leave, so the
+     * hand history log is left open for the caller to close.
+     *
+     * @throws IOException If the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        acceptThread.interrupt();
+    }
+
+    /**
+     * Runs the server from the command line until the process is stopped.
+     *
+     * @param args Optional port, deck count, hand history file ("-" for none), session recordings directory
+     *             ("-" for none), round export file ("-" for none) and shoe generator for
+     *             {@link ShoeRandom#parse(String)}.
+     * @throws IOException If the port cannot be bound.
+     * @throws InterruptedException If the main thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        HandHistoryLog history = args.length > 2 && !args[2].equals("-") ? new HandHistoryLog(new File(args[2]), HandHistoryLog.DEFAULT_SYNC_BATCH) : null;
+        if (history != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    history.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close hand history: " + e.getMessage());
+                }
+            }));
+        }
+
+        File recordings = args.length > 3 && !args[3].equals("-") ? new File(args[3]) : null;
+
+        TableServer server = new TableServer(port, decks, history, recordings);
+        if (args.length > 5) {
+            server.setRandom(ShoeRandom.parse(args[5]));
+        }
+        if (args.length > 4 && !args[4].equals("-")) {
+            ResultExporter exporter = ResultExporter.forRounds(new File(args[4]));
+            ResultExporter.SharedSink sink = exporter.newSharedSink();
+            server.setExportSink(sink);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    sink.close();
+                    exporter.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close result export: " + e.getMessage());
+                }
+            }));
+        }
+        EngineMetrics.register();
+        System.out.println("Blackjack table server listening on 127.0.0.1:" + server.getPort());
+        server.acceptThread.join();
+    }
+}
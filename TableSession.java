@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * The TableSession class is one independent table in server mode: its own shoe, game and bankroll,
+ * driven by one text command at a time. It follows the same bankroll rules as the Swing table: the
+ * balance starts at $1000, a bet must be between $1 and the balance, and losing everything starts
+ * a new $1000 bankroll. A session is only ever touched by the thread serving its connection.
+ *
+ * <p>Commands and their one-line replies:
+ * <pre>
+ * BET n   -> DEALT player=&lt;total&gt; cards=&lt;n&gt; dealer=&lt;upcard&gt;, or a RESULT line
+ * HIT     -> CARD &lt;card&gt; player=&lt;total&gt; cards=&lt;n&gt;, or a RESULT line
+ * STAND   -> RESULT WIN|TIE|LOSE amount=&lt;bet&gt; balance=&lt;balance&gt; player=&lt;total&gt; dealer=&lt;total&gt;
+ * STATE   -> STATE balance=&lt;balance&gt; inRound=&lt;true|false&gt; handsWon=&lt;n&gt; highestBank=&lt;amount&gt;
+ * QUIT    -> BYE
+ * </pre>
+ * Anything else, or a command out of turn, is answered with {@code ERR <reason>}.
+ * Finished rounds are appended to a {@link HandHistoryLog} and streamed to a {@link ResultExporter}
+ * sink when the session is given them, and a session dealt from a seeded shoe keeps a {@link SessionRecording} of every action.
+ */
+public class TableSession implements BlackjackListener {
+    /** The balance every new bankroll starts with. */
+    public static final int STARTING_BALANCE = BlackjackGame.STARTING_BALANCE;
+
+    private final BlackjackEngine engine;
+    private final HandHistoryLog history;
+    private final int sessionId;
+    private ResultExporter.SharedSink exportSink;
+    private BlackjackGame game;
+    private int rounds;
+    private int balance;
+    private int bet;
+    private boolean inRound;
+    private String result;
+
+    /**
+     * Constructs a session dealing from the given shoe.
+     *
+     * @param shoe The shoe for this table.
+     */
+    public TableSession(Shoe shoe) {
+        this(shoe, null, 0);
+    }
+
+    /**
+     * Constructs a session dealing from the given shoe and recording its rounds.
+     *
+     * @param shoe The shoe for this table.
+     * @param history The log to append finished rounds to, or null to keep no history.
+     * @param sessionId The id this session's rounds are logged under.
+     */
+    public TableSession(Shoe shoe, HandHistoryLog history, int sessionId) {
+        this.history = history;
+        this.sessionId = sessionId;
+        engine = new BlackjackEngine(shoe);
+        game = new BlackjackGame(engine);
+        if (shoe.isSeeded()) {
+            game.setRecording(new SessionRecording(shoe, STARTING_BALANCE));
+        }
+        balance = STARTING_BALANCE;
+    }
+
+    /**
+     * Sets the sink finished rounds are streamed to. The sink is shared with the server's other tables,
+     * which together fill its blocks.
+     *
+     * @param sink A round exporter's shared sink, or null to export nothing.
+     */
+    public void setExportSink(ResultExporter.SharedSink sink) {
+        this.exportSink = sink;
+    }
+
+    /**
+     * Handles one command line and produces its reply.
+     *
+     * @param command The command line.
+     * @return The one-line reply.
+     */
+    public String handle(String command) {
+        String line = command.trim();
+        int space = line.indexOf(' ');
+        String verb = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+
+        switch (verb) {
+            case "BET":
+                return placeBet(space < 0 ? "" : line.substring(space + 1).trim());
+            case "HIT":
+                if (!inRound) {
+                    return "ERR place a bet first";
+                }
+                result = null;
+                game.hit();
+                if (result != null) {
+                    return result;
+                }
+                Hand playerHand = game.getPlayerHand();
+                return "CARD " + playerHand.card(playerHand.size() - 1) + " player=" + playerHand.value()
+                        + " cards=" + playerHand.size();
+            case "STAND":
+                if (!inRound) {
+                    return "ERR place a bet first";
+                }
+                result = null;
+                game.stand();
+                return result;
+            case "STATE":
+                return "STATE balance=" + balance + " inRound=" + inRound + " handsWon=" + game.getHandsWon()
+                        + " highestBank=" + game.getHighestBank();
+            case "QUIT":
+                return "BYE";
+            default:
+                return "ERR unknown command";
+        }
+    }
+
+    /**
+     * Places a bet and deals a new round.
+     *
+     * @param amount The bet amount as sent by the client.
+     * @return The reply line.
+     */
+    private String placeBet(String amount) {
+        if (inRound) {
+            return "ERR round in progress";
+        }
+
+        try {
+            bet = Integer.parseInt(amount);
+        } catch (NumberFormatException e) {
+            return "ERR invalid bet amount";
+        }
+        if (bet < 1 || bet > balance) {
+            return "ERR invalid bet amount";
+        }
+
+        inRound = true;
+        result = null;
+        game.startGame(this, balance, bet);
+        if (result != null) {
+            return result;
+        }
+
+        Hand playerHand = game.getPlayerHand();
+        return "DEALT player=" + playerHand.value() + " cards=" + playerHand.size()
+                + " dealer=" + game.getDealerHand().card(0);
+    }
+
+    /**
+     * Formats the reply for a finished round and records it in the history log and the export.
+     *
+     * @param outcome The outcome word.
+     * @param code The result code of the round.
+     * @param amount The amount won or lost.
+     */
+    private void finishRound(String outcome, int code, int amount) {
+        result = "RESULT " + outcome + " amount=" + amount + " balance=" + balance
+                + " player=" + game.getPlayerHand().value() + " dealer=" + game.getDealerHand().value();
+
+        int round = rounds++;
+        if (history != null) {
+            try {
+                history.append(sessionId, round, bet, code, game.getPlayerHand(), game.getDealerHand());
+            } catch (IOException e) {
+                System.err.println("Failed to record hand history: " + e.getMessage());
+            }
+        }
+        if (exportSink != null) {
+            exportSink.round(sessionId, round, bet, code, game.getPlayerHand(), game.getDealerHand());
+        }
+    }
+
+    /**
+     * Retrieves the recording of this session's actions and outcomes.
+     *
+     * @return The recording, or null if the shoe was not seeded.
+     */
+    public SessionRecording getRecording() {
+        return game.getRecording();
+    }
+
+    @Override
+    public void balanceChanged(int newBalance) {
+        balance = newBalance;
+    }
+
+    @Override
+    public void roundWon(int amount) {
+        finishRound("WIN", BlackjackEngine.PLAYER_WINS, amount);
+    }
+
+    @Override
+    public void roundTied() {
+        finishRound("TIE", BlackjackEngine.TIE, 0);
+    }
+
+    @Override
+    public void roundLost(int amount) {
+        finishRound("LOSE", BlackjackEngine.DEALER_WINS, amount);
+    }
+
+    @Override
+    public void bankrupt() {
+        balance = 0;
+        finishRound("LOSE", BlackjackEngine.DEALER_WINS, bet);
+
+        // Losing everything starts a new game with a fresh bankroll, as the Swing table does
+        engine.resetRound();
+        BlackjackGame next = new BlackjackGame(engine);
+        next.setRecording(game.getRecording());
+        game = next;
+        balance = STARTING_BALANCE;
+        inRound = false;
+    }
+
+    @Override
+    public void roundReset() {
+        inRound = false;
+    }
+}
@@ -0,0 +1,255 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * The Tournament class pits a field of {@link TournamentBot}s against each other headless. Every bot
+ * plays one session per deal under the game's bankroll rules: it starts at
+ * {@link BlackjackGame#STARTING_BALANCE}, bets at least 1 and at most its balance, and is eliminated at
+ * 0 or stops at the round limit. Every bot is dealt each deal from a shoe reseeded to that deal's
+ * seed, so, as in duplicate bridge, every pair of bots meets on identical cards; comparing each deal's
+ * sessions makes the tournament a full round-robin at the cost of one session per bot per deal.
+ *
+ * <p>The sessions are scheduled in brackets, a deal's sessions for up to {@link #BRACKET_BOTS} bots.
+ * Brackets are the leaves of a fork/join task tree, so thousands of them are spread across every core
+ * and idle workers steal from busy ones. Each session's outcome depends only on its deal and its bot,
+ * so a seed gives the same leaderboard for any thread count.
+ */
+public class Tournament {
+    /** The most bots one bracket plays before it stops splitting. */
+    public static final int BRACKET_BOTS = 64;
+
+    private final RuleSet rules;
+    private final List<TournamentBot> bots;
+    private int maxRounds = 1000;
+    private ShoeRandom shoeRandom = ShoeRandom.SPLITTABLE;
+
+    /**
+     * Constructs a tournament of the given bots.
+     *
+     * @param rules The rules of the game, including the shoe configuration.
+     * @param bots The entrants, numbered from 0 in order; at least one.
+     */
+    public Tournament(RuleSet rules, List<TournamentBot> bots) {
+        if (bots.isEmpty()) {
+            throw new IllegalArgumentException("A tournament needs at least one bot");
+        }
+        for (int i = 0; i < bots.size(); i++) {
+            if (bots.get(i).getId() != i) {
+                throw new IllegalArgumentException("Bot " + bots.get(i) + " is entered at position " + i);
+            }
+        }
+        this.rules = rules;
+        this.bots = List.copyOf(bots);
+    }
+
+    /**
+     * Sets the most rounds a session plays before the bot leaves the table.
+     *
+     * @param maxRounds The round limit, at least 1.
+     */
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("A session plays at least one round: " + maxRounds);
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Sets the kind of generator the shoes shuffle with. Every bot must be dealt the same cards, so
+     * the generator must be reproducible.
+     *
+     * @param shoeRandom The generator choice.
+     */
+    public void setRandom(ShoeRandom shoeRandom) {
+        if (!shoeRandom.isReproducible()) {
+            throw new IllegalArgumentException("A tournament deals identical shoes and needs a seeded generator: " + shoeRandom);
+        }
+        this.shoeRandom = shoeRandom;
+    }
+
+    /**
+     * Plays every bot through the given number of deals on the given fork/join pool.
+     *
+     * @param deals The number of deals, each a session for every bot; at least 1.
+     * @param seed The seed the deals are derived from.
+     * @param pool The pool to run the brackets on.
+     * @return The standings.
+     */
+    public TournamentResult run(int deals, long seed, ForkJoinPool pool) {
+        if (deals < 1) {
+            throw new IllegalArgumentException("A tournament plays at least one deal: " + deals);
+        }
+        RandomGenerator random = shoeRandom.create(seed);
+        long[] dealSeeds = new long[deals];
+        for (int i = 0; i < deals; i++) {
+            dealSeeds[i] = random.nextLong();
+        }
+
+        int sessions = Math.multiplyExact(deals, bots.size());
+        int[] balances = new int[sessions];
+        int[] handsWon = new int[sessions];
+        int[] highestBanks = new int[sessions];
+        int[] rounds = new int[sessions];
+        int brackets = (bots.size() + BRACKET_BOTS - 1) / BRACKET_BOTS;
+        pool.invoke(new BracketTask(dealSeeds, 0, deals * brackets, brackets, balances, handsWon, highestBanks, rounds));
+        return new TournamentResult(bots, deals, balances, handsWon, highestBanks, rounds);
+    }
+
+    /**
+     * Plays one bracket: a deal's sessions for a run of consecutive bots, all at one engine whose shoe
+     * is reseeded to the deal's seed before each session. The results are written to each session's
+     * own slot, {@code deal * bots + bot}, so brackets never share a slot.
+     *
+     * @param dealSeed The deal's seed.
+     * @param deal The deal's number.
+     * @param bracket The bracket's number within the deal.
+     * @param balances The final balance of every session.
+     * @param handsWon The hands won in every session.
+     * @param highestBanks The highest bank of every session.
+     * @param rounds The rounds played in every session.
+     */
+    private void playBracket(long dealSeed, int deal, int bracket, int[] balances, int[] handsWon,
+                             int[] highestBanks, int[] rounds) {
+        RuleSet rules = this.rules;
+        BlackjackEngine engine = new BlackjackEngine(rules.newShoe(dealSeed, shoeRandom), rules);
+        Shoe shoe = engine.getShoe();
+        ShoeComposition composition = shoe.getComposition();
+        Hand playerHand = engine.getPlayerHand();
+        long totalRounds = 0;
+
+        int first = bracket * BRACKET_BOTS;
+        int last = Math.min(first + BRACKET_BOTS, bots.size());
+        for (int id = first; id < last; id++) {
+            TournamentBot bot = bots.get(id);
+            PlayerStrategy playing = bot.getPlayerStrategy();
+            BettingStrategy betting = bot.getBettingStrategy();
+            shoe.reseed(dealSeed);
+
+            int balance = BlackjackGame.STARTING_BALANCE;
+            int highestBank = balance;
+            int won = 0;
+            int lastBet = 0;
+            int lastResult = BlackjackEngine.IN_PROGRESS;
+            int round = 0;
+
+            // The same bets and payouts as the game: a bet covers 1 to the balance, and 0 is bankrupt
+            while (balance > 0 && round < maxRounds) {
+                int bet = Math.max(1, Math.min(betting.nextBet(balance, lastBet, lastResult, composition), balance));
+                int outcome = engine.playRound(playing);
+                if (outcome == BlackjackEngine.PLAYER_WINS) {
+                    // A lucky proportional bettor could outgrow an int, so the balance saturates
+                    balance = (int) Math.min(Integer.MAX_VALUE, (long) balance + rules.winnings(bet, playerHand));
+                    won++;
+                    highestBank = Math.max(highestBank, balance);
+                } else if (outcome == BlackjackEngine.DEALER_WINS) {
+                    balance -= bet;
+                }
+                engine.resetRound();
+
+                lastBet = bet;
+                lastResult = outcome;
+                round++;
+            }
+
+            int slot = deal * bots.size() + id;
+            balances[slot] = balance;
+            handsWon[slot] = won;
+            highestBanks[slot] = highestBank;
+            rounds[slot] = round;
+            totalRounds += round;
+        }
+        EngineMetrics.get().roundsFinished(totalRounds);
+    }
+
+    /**
+     * A task that halves its range of brackets, numbered deal by deal, until one bracket is left.
+     */
+    private class BracketTask extends RecursiveAction {
+        private final long[] dealSeeds;
+        private final int from;
+        private final int to;
+        private final int brackets;
+        private final int[] balances;
+        private final int[] handsWon;
+        private final int[] highestBanks;
+        private final int[] rounds;
+
+        BracketTask(long[] dealSeeds, int from, int to, int brackets, int[] balances, int[] handsWon,
+                    int[] highestBanks, int[] rounds) {
+            this.dealSeeds = dealSeeds;
+            this.from = from;
+            this.to = to;
+            this.brackets = brackets;
+            this.balances = balances;
+            this.handsWon = handsWon;
+            this.highestBanks = highestBanks;
+            this.rounds = rounds;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 0) {
+                return;
+            }
+            if (to - from == 1) {
+                int deal = from / brackets;
+                playBracket(dealSeeds[deal], deal, from % brackets, balances, handsWon, highestBanks, rounds);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BracketTask(dealSeeds, from, middle, brackets, balances, handsWon, highestBanks, rounds),
+                    new BracketTask(dealSeeds, middle, to, brackets, balances, handsWon, highestBanks, rounds));
+        }
+    }
+
+    /**
+     * Runs a tournament from the command line and prints the leaderboard.
+     *
+     * @param args Optional bot count or comma-separated bot specs (see {@link TournamentBot}), deal count,
+     *             seed, thread count, round limit, rule list for {@link RuleSet#parse(String)} ("" for the
+     *             default rules), shoe generator for {@link ShoeRandom#parse(String)} and leaderboard size.
+     */
+    public static void main(String[] args) {
+        String field = args.length > 0 ? args[0] : "10000";
+        int deals = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int maxRounds = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        RuleSet rules = args.length > 5 ? RuleSet.parse(args[5]) : RuleSet.DEFAULT;
+        ShoeRandom shoeRandom = args.length > 6 ? ShoeRandom.parse(args[6]) : ShoeRandom.SPLITTABLE;
+        int top = args.length > 7 ? Integer.parseInt(args[7]) : 20;
+
+        PlayerStrategy optimal = StrategyTable.forRules(rules);
+        List<TournamentBot> bots;
+        if (field.chars().allMatch(Character::isDigit)) {
+            bots = TournamentBot.population(Integer.parseInt(field), optimal, seed);
+        } else {
+            bots = new ArrayList<>();
+            for (String spec : field.split(",")) {
+                bots.add(TournamentBot.parse(bots.size(), spec.trim(), optimal));
+            }
+        }
+
+        Tournament tournament = new Tournament(rules, bots);
+        tournament.setMaxRounds(maxRounds);
+        tournament.setRandom(shoeRandom);
+        EngineMetrics.register();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        long start = System.nanoTime();
+        TournamentResult result = tournament.run(deals, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.println(result.leaderboard(top));
+        System.out.printf("Seed: %d, Bots: %d, Deals: %d, Round Limit: %d, Threads: %d%n",
+                seed, bots.size(), deals, maxRounds, threads);
+        System.out.println("Rules: " + rules + ", Random: " + shoeRandom.getAlgorithm());
+        System.out.printf("Time: %.2fs (%.0f sessions/s, %.0f hands/s)%n",
+                seconds, result.getSessions() / seconds, result.getRounds() / seconds);
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The TournamentBot class is one headless entrant of a {@link Tournament}: a {@link PlayerStrategy}
+ * making its hit and stand decisions and a {@link BettingStrategy} sizing its bets. A bot is
+ * described by a spec of the form {@code play/bet}, where the playing style is {@code optimal} (the
+ * solved strategy table), {@code dealer} (hit below 17) or {@code stand=N} (hit below N), and the
+ * betting part is anything {@link BettingStrategy#parse(String)} accepts, such as
+ * {@code optimal/count=10:8}.
+ */
+public final class TournamentBot {
+    /** The lowest total a {@code stand=N} bot may stand on. */
+    public static final int MIN_STAND = 12;
+    /** The highest total a {@code stand=N} bot may stand on. */
+    public static final int MAX_STAND = 21;
+
+    private final int id;
+    private final String spec;
+    private final PlayerStrategy playerStrategy;
+    private final BettingStrategy bettingStrategy;
+
+    /**
+     * Constructs a bot.
+     *
+     * @param id The bot's number, unique within its tournament.
+     * @param spec The spec the bot was built from, used as its name.
+     * @param playerStrategy The strategy making the bot's hit and stand decisions.
+     * @param bettingStrategy The strategy sizing the bot's bets.
+     */
+    public TournamentBot(int id, String spec, PlayerStrategy playerStrategy, BettingStrategy bettingStrategy) {
+        this.id = id;
+        this.spec = spec;
+        this.playerStrategy = playerStrategy;
+        this.bettingStrategy = bettingStrategy;
+    }
+
+    /**
+     * Builds a bot from its spec.
+     *
+     * @param id The bot's number.
+     * @param spec The spec, such as {@code stand=15/martingale=5}.
+     * @param optimal The solved strategy table {@code optimal} bots play by.
+     * @return The bot.
+     * @throws IllegalArgumentException If the spec is not understood.
+     */
+    public static TournamentBot parse(int id, String spec, PlayerStrategy optimal) {
+        int slash = spec.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("A bot is written play/bet: " + spec);
+        }
+        String play = spec.substring(0, slash).toLowerCase(Locale.ROOT);
+        BettingStrategy betting = BettingStrategy.parse(spec.substring(slash + 1));
+
+        PlayerStrategy playing;
+        if (play.equals("optimal")) {
+            playing = optimal;
+        } else if (play.equals("dealer")) {
+            playing = PlayerStrategy.DEALER_RULES;
+        } else if (play.startsWith("stand=")) {
+            int standOn;
+            try {
+                standOn = Integer.parseInt(play.substring(6));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad playing style: " + play, e);
+            }
+            if (standOn < MIN_STAND || standOn > MAX_STAND) {
+                throw new IllegalArgumentException("A bot stands on " + MIN_STAND + " to " + MAX_STAND + ": " + standOn);
+            }
+            playing = (playerHand, dealerUpcard) -> playerHand.value() < standOn;
+        } else {
+            throw new IllegalArgumentException("Unknown playing style: " + play);
+        }
+        return new TournamentBot(id, spec, playing, betting);
+    }
+
+    /**
+     * Generates a varied field of bots from a seed: every playing style, each paired with flat,
+     * Martingale, proportional or count-based betting of a random size.
+     *
+     * @param count The number of bots.
+     * @param optimal The solved strategy table {@code optimal} bots play by.
+     * @param seed The seed the field is derived from.
+     * @return The bots, numbered from 0.
+     */
+    public static List<TournamentBot> population(int count, PlayerStrategy optimal, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<TournamentBot> bots = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            String play;
+            int style = random.nextInt(10);
+            if (style < 4) {
+                play = "optimal";
+            } else if (style < 5) {
+                play = "dealer";
+            } else {
+                play = "stand=" + random.nextInt(MIN_STAND, 19);
+            }
+
+            String bet;
+            switch (random.nextInt(4)) {
+                case 0:
+                    bet = "flat=" + 5 * random.nextInt(1, 21);
+                    break;
+                case 1:
+                    bet = "martingale=" + random.nextInt(1, 51);
+                    break;
+                case 2:
+                    bet = String.format(Locale.ROOT, "proportional=%.3f", random.nextInt(5, 251) / 1000.0);
+                    break;
+                default:
+                    bet = "count=" + random.nextInt(5, 26) + ":" + random.nextInt(2, 13);
+                    break;
+            }
+            bots.add(parse(id, play + "/" + bet, optimal));
+        }
+        return bots;
+    }
+
+    /**
+     * Retrieves the bot's number.
+     *
+     * @return The id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the spec the bot was built from.
+     *
+     * @return The spec.
+     */
+    public String getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the strategy making the bot's hit and stand decisions.
+     *
+     * @return The playing strategy.
+     */
+    public PlayerStrategy getPlayerStrategy() {
+        return playerStrategy;
+    }
+
+    /**
+     * Retrieves the strategy sizing the bot's bets.
+     *
+     * @return The betting strategy.
+     */
+    public BettingStrategy getBettingStrategy() {
+        return bettingStrategy;
+    }
+
+    /**
+     * Formats the bot as its number and spec.
+     *
+     * @return The bot's name.
+     */
+    @Override
+    public String toString() {
+        return "#" + id + " " + spec;
+    }
+}
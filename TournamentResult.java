@@ -0,0 +1,221 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The TournamentResult class ranks the bots of a finished {@link Tournament}. Sessions are scored as
+ * at the end of a game: the score is the final balance minus {@link BlackjackGame#STARTING_BALANCE},
+ * with hands won and then the highest bank breaking ties. On every deal each bot earns a point for
+ * every bot it outscored and half a point for every bot it tied, which is a round-robin of the whole
+ * field on identical cards. The leaderboard orders the bots by points, then by total score.
+ */
+public class TournamentResult {
+    private final int deals;
+    private final int botCount;
+    private final List<Standing> standings;
+    private long rounds;
+
+    /**
+     * Scores the sessions of a finished tournament. Each array holds one slot per session, the session
+     * of bot {@code b} on deal {@code d} at {@code d * bots + b}.
+     *
+     * @param bots The bots, numbered from 0.
+     * @param deals The number of deals played.
+     * @param balances The final balance of every session.
+     * @param handsWon The hands won in every session.
+     * @param highestBanks The highest bank of every session.
+     * @param sessionRounds The rounds played in every session.
+     */
+    TournamentResult(List<TournamentBot> bots, int deals, int[] balances, int[] handsWon, int[] highestBanks,
+                     int[] sessionRounds) {
+        this.deals = deals;
+        this.botCount = bots.size();
+        int n = bots.size();
+        double[] points = new double[n];
+
+        // Sort each deal's sessions by score and hand out a point per bot beaten, half per bot tied
+        Integer[] order = new Integer[n];
+        for (int deal = 0; deal < deals; deal++) {
+            int base = deal * n;
+            for (int i = 0; i < n; i++) {
+                order[i] = base + i;
+            }
+            Comparator<Integer> bySession = Comparator.<Integer>comparingInt(slot -> balances[slot])
+                    .thenComparingInt(slot -> handsWon[slot])
+                    .thenComparingInt(slot -> highestBanks[slot]);
+            Arrays.sort(order, bySession);
+
+            int start = 0;
+            while (start < n) {
+                int end = start + 1;
+                while (end < n && bySession.compare(order[start], order[end]) == 0) {
+                    end++;
+                }
+                double earned = start + 0.5 * (end - start - 1);
+                for (int i = start; i < end; i++) {
+                    points[order[i] - base] += earned;
+                }
+                start = end;
+            }
+        }
+
+        List<Standing> standings = new ArrayList<>(n);
+        for (TournamentBot bot : bots) {
+            PlayerStats stats = PlayerStats.empty(bot.getSpec());
+            int eliminations = 0;
+            long botRounds = 0;
+            for (int deal = 0; deal < deals; deal++) {
+                int slot = deal * n + bot.getId();
+                stats = stats.withSession(balances[slot] - BlackjackGame.STARTING_BALANCE, handsWon[slot], highestBanks[slot]);
+                if (balances[slot] == 0) {
+                    eliminations++;
+                }
+                botRounds += sessionRounds[slot];
+            }
+            rounds += botRounds;
+            standings.add(new Standing(bot, points[bot.getId()], stats, eliminations, botRounds));
+        }
+        standings.sort(Comparator.comparingDouble(Standing::getPoints).reversed()
+                .thenComparing(Comparator.comparingLong((Standing standing) -> standing.getStats().getTotalScore()).reversed())
+                .thenComparingInt(standing -> standing.getBot().getId()));
+        this.standings = Collections.unmodifiableList(standings);
+    }
+
+    /**
+     * Retrieves every bot's standing, best first.
+     *
+     * @return The standings.
+     */
+    public List<Standing> getStandings() {
+        return standings;
+    }
+
+    /**
+     * Retrieves the number of deals every bot played.
+     *
+     * @return The deal count.
+     */
+    public int getDeals() {
+        return deals;
+    }
+
+    /**
+     * Retrieves the number of sessions played, one per bot per deal.
+     *
+     * @return The session count.
+     */
+    public long getSessions() {
+        return (long) deals * botCount;
+    }
+
+    /**
+     * Retrieves the number of rounds played across every session.
+     *
+     * @return The round count.
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Formats the top of the leaderboard as a table. Bots level on points and total score share a rank.
+     *
+     * @param top The most bots to list.
+     * @return The leaderboard text.
+     */
+    public String leaderboard(int top) {
+        double matches = (double) deals * Math.max(1, botCount - 1);
+        StringBuilder text = new StringBuilder(String.format("%4s  %10s  %7s  %10s  %10s  %9s  %12s  %4s  %s%n",
+                "Rank", "Points", "Match%", "Mean Score", "High Score", "Hands Won", "Highest Bank", "Out", "Bot"));
+        int rank = 0;
+        for (int i = 0; i < Math.min(top, standings.size()); i++) {
+            Standing standing = standings.get(i);
+            PlayerStats stats = standing.getStats();
+            if (i == 0 || standing.getPoints() != standings.get(i - 1).getPoints()
+                    || stats.getTotalScore() != standings.get(i - 1).getStats().getTotalScore()) {
+                rank = i + 1;
+            }
+            text.append(String.format("%4d  %10.1f  %6.2f%%  %10.1f  %10d  %9d  %12d  %4d  %s%n",
+                    rank, standing.getPoints(), standing.getPoints() / matches * 100,
+                    (double) stats.getTotalScore() / deals, stats.getHighScore(), stats.getHandsWon(),
+                    stats.getHighestBank(), standing.getEliminations(), standing.getBot()));
+        }
+        return text.toString().stripTrailing();
+    }
+
+    /**
+     * Formats the top ten of the leaderboard.
+     *
+     * @return The leaderboard text.
+     */
+    @Override
+    public String toString() {
+        return leaderboard(10);
+    }
+
+    /**
+     * One bot's place in the tournament: its round-robin points and its game statistics over every deal.
+     */
+    public static final class Standing {
+        private final TournamentBot bot;
+        private final double points;
+        private final PlayerStats stats;
+        private final int eliminations;
+        private final long rounds;
+
+        Standing(TournamentBot bot, double points, PlayerStats stats, int eliminations, long rounds) {
+            this.bot = bot;
+            this.points = points;
+            this.stats = stats;
+            this.eliminations = eliminations;
+            this.rounds = rounds;
+        }
+
+        /**
+         * Retrieves the bot.
+         *
+         * @return The bot.
+         */
+        public TournamentBot getBot() {
+            return bot;
+        }
+
+        /**
+         * Retrieves the bot's round-robin points: one per bot outscored on a deal, half per bot tied.
+         *
+         * @return The points.
+         */
+        public double getPoints() {
+            return points;
+        }
+
+        /**
+         * Retrieves the bot's statistics over every deal, one session per deal, scored as the game scores them.
+         *
+         * @return The statistics, under the bot's spec as the player name.
+         */
+        public PlayerStats getStats() {
+            return stats;
+        }
+
+        /**
+         * Retrieves the number of deals on which the bot went bankrupt.
+         *
+         * @return The elimination count.
+         */
+        public int getEliminations() {
+            return eliminations;
+        }
+
+        /**
+         * Retrieves the number of rounds the bot played across every deal.
+         *
+         * @return The round count.
+         */
+        public long getRounds() {
+            return rounds;
+        }
+    }
+}
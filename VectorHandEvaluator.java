@@ -0,0 +1,99 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorHandEvaluator class scores a {@link HandBatch} with the incubating Vector API, a full
+ * vector of rounds per step, using lane masks in place of the branches of the scalar path. Each
+ * hand and the round results are scored in separate small loops so that the JIT can keep every
+ * vector in registers. It must only be loaded when the {@code jdk.incubator.vector} module is
+ * present, which {@link BatchHandEvaluator} checks before calling it.
+ */
+final class VectorHandEvaluator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorHandEvaluator() {
+    }
+
+    /**
+     * Scores every round in the batch, finishing any rounds past the last full vector with the scalar path.
+     *
+     * @param batch The batch, whose outputs are overwritten.
+     */
+    static void evaluate(HandBatch batch) {
+        int size = batch.size();
+        int bound = SPECIES.loopBound(size);
+        scoreHands(batch.playerHard, batch.playerAces, batch.playerCards, batch.playerValues, batch.playerFlags, bound);
+        scoreHands(batch.dealerHard, batch.dealerAces, batch.dealerCards, batch.dealerValues, batch.dealerFlags, bound);
+        resolve(batch, bound);
+        BatchHandEvaluator.evaluateScalar(batch, bound, size);
+    }
+
+    /**
+     * Computes the value and flags of one side's hands.
+     *
+     * @param hard The hard totals.
+     * @param aces The ace counts.
+     * @param cards The card counts.
+     * @param values The array to store the hand values in.
+     * @param flags The array to store the hand flags in.
+     * @param bound The number of hands to score, a multiple of the vector length.
+     */
+    private static void scoreHands(int[] hard, int[] aces, int[] cards, int[] values, int[] flags, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector clamped = IntVector.fromArray(SPECIES, hard, i).min(31);
+            IntVector count = IntVector.fromArray(SPECIES, cards, i);
+
+            // At most one ace can count as 11 without going over 21
+            VectorMask<Integer> soft = IntVector.fromArray(SPECIES, aces, i).compare(VectorOperators.GT, 0)
+                    .and(clamped.compare(VectorOperators.LE, 11));
+            IntVector counted = clamped.blend(clamped.add(10), soft);
+
+            // Check for Five-Card Charlie
+            VectorMask<Integer> charlie = count.compare(VectorOperators.EQ, Hand.CHARLIE_CARDS)
+                    .and(counted.compare(VectorOperators.LT, 21));
+            IntVector value = counted.blend(21, charlie);
+            VectorMask<Integer> blackjack = count.compare(VectorOperators.EQ, 2).and(value.compare(VectorOperators.EQ, 21));
+
+            value.intoArray(values, i);
+            IntVector.zero(SPECIES)
+                    .blend(HandBatch.SOFT, soft)
+                    .or(IntVector.zero(SPECIES).blend(HandBatch.BUST, value.compare(VectorOperators.GT, 21)))
+                    .or(IntVector.zero(SPECIES).blend(HandBatch.BLACKJACK, blackjack))
+                    .or(IntVector.zero(SPECIES).blend(HandBatch.CHARLIE, charlie))
+                    .intoArray(flags, i);
+        }
+    }
+
+    /**
+     * Resolves each round from its scored hands, applying checkGameOver's rules from the lowest priority up.
+     *
+     * @param batch The batch, whose hands have been scored.
+     * @param bound The number of rounds to resolve, a multiple of the vector length.
+     */
+    private static void resolve(HandBatch batch, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector playerValue = IntVector.fromArray(SPECIES, batch.playerValues, i);
+            IntVector dealerValue = IntVector.fromArray(SPECIES, batch.dealerValues, i);
+            VectorMask<Integer> playerBlackjack = IntVector.fromArray(SPECIES, batch.playerFlags, i)
+                    .and(HandBatch.BLACKJACK).compare(VectorOperators.NE, 0);
+            VectorMask<Integer> dealerBlackjack = IntVector.fromArray(SPECIES, batch.dealerFlags, i)
+                    .and(HandBatch.BLACKJACK).compare(VectorOperators.NE, 0);
+            VectorMask<Integer> dealerPlayed = IntVector.fromArray(SPECIES, batch.dealerPlayed, i)
+                    .compare(VectorOperators.NE, 0);
+            VectorMask<Integer> playerAhead = dealerValue.compare(VectorOperators.GT, 21)
+                    .or(playerValue.compare(VectorOperators.GT, dealerValue));
+
+            IntVector.broadcast(SPECIES, BlackjackEngine.IN_PROGRESS)
+                    .blend(BlackjackEngine.DEALER_WINS, playerValue.compare(VectorOperators.GT, 21))
+                    .blend(BlackjackEngine.DEALER_WINS, dealerPlayed)
+                    .blend(BlackjackEngine.PLAYER_WINS, dealerPlayed.and(playerAhead))
+                    .blend(BlackjackEngine.TIE, dealerPlayed.and(playerValue.compare(VectorOperators.EQ, dealerValue)))
+                    .blend(BlackjackEngine.DEALER_WINS, dealerBlackjack)
+                    .blend(BlackjackEngine.PLAYER_WINS, playerBlackjack)
+                    .blend(BlackjackEngine.TIE, playerBlackjack.and(dealerBlackjack))
+                    .intoArray(batch.results, i);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * The BenchmarkWorkloads class builds the operations measured by the JMH benchmarks. JMH only accepts
+ * benchmark classes in a named package, and a named package cannot see the game's default-package
+ * classes, so each workload is built here and handed to the benchmark as an {@link IntSupplier}.
+ * Every benchmark method calls exactly one workload, so the call is monomorphic and inlined.
+ */
+public final class BenchmarkWorkloads {
+    /** The number of hands each hand-evaluation workload scores per call. */
+    public static final int HANDS = 1024;
+
+    private BenchmarkWorkloads() {
+    }
+
+    /**
+     * Reshuffles the original String deck with the temporary-list shuffle.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier legacyShuffleDeck() {
+        LegacyGameLogic legacy = new LegacyGameLogic();
+        return () -> {
+            legacy.shuffleDeck();
+            return legacy.remaining();
+        };
+    }
+
+    /**
+     * Reshuffles a shoe in place.
+     *
+     * @param decks The number of decks in the shoe.
+     * @return The workload.
+     */
+    public static IntSupplier shoeShuffle(int decks) {
+        Shoe shoe = new Shoe(decks, Shoe.DEFAULT_PENETRATION, new SplittableRandom(1));
+        return () -> {
+            shoe.shuffle();
+            return shoe.remaining();
+        };
+    }
+
+    /**
+     * Reshuffles a shoe in place with a chosen kind of generator.
+     *
+     * @param decks The number of decks in the shoe.
+     * @param random The ordinal of the {@link ShoeRandom} to shuffle with.
+     * @return The workload.
+     */
+    public static IntSupplier shoeShuffleWith(int decks, int random) {
+        Shoe shoe = new Shoe(decks, Shoe.DEFAULT_PENETRATION, 1, ShoeRandom.values()[random]);
+        return () -> {
+            shoe.shuffle();
+            return shoe.remaining();
+        };
+    }
+
+    /**
+     * Scores {@link #HANDS} random hands with the original HashMap-based countHandValue.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier legacyCountHandValue() {
+        LegacyGameLogic legacy = new LegacyGameLogic();
+        List<List<String>> hands = legacyHands(randomHands());
+        return () -> {
+            int sum = 0;
+            for (List<String> hand : hands) {
+                sum += legacy.countHandValue(hand);
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Reads the value of {@link #HANDS} random hands that are already built.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier handValue() {
+        Hand[] hands = hands(randomHands());
+        return () -> {
+            int sum = 0;
+            for (Hand hand : hands) {
+                sum += hand.value();
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Builds {@link #HANDS} random hands card by card and reads their values.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier handBuildAndValue() {
+        int[][] cardHands = randomHands();
+        Hand hand = new Hand();
+        return () -> {
+            int sum = 0;
+            for (int[] cards : cardHands) {
+                hand.clear();
+                for (int card : cards) {
+                    hand.add(card);
+                }
+                sum += hand.value();
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Resolves {@link #HANDS} played rounds with the original checkGameOver.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier legacyCheckGameOver() {
+        LegacyGameLogic legacy = new LegacyGameLogic();
+        BlackjackEngine[] engines = playedRounds();
+        List<List<String>> playerHands = new ArrayList<>();
+        List<List<String>> dealerHands = new ArrayList<>();
+        for (BlackjackEngine engine : engines) {
+            playerHands.add(legacyHand(engine.getPlayerHand()));
+            dealerHands.add(legacyHand(engine.getDealerHand()));
+        }
+        return () -> {
+            int sum = 0;
+            for (int i = 0; i < HANDS; i++) {
+                sum += legacy.checkGameOver(playerHands.get(i), dealerHands.get(i), true);
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Resolves the same {@link #HANDS} played rounds with the engine's checkGameOver.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier engineCheckGameOver() {
+        BlackjackEngine[] engines = playedRounds();
+        return () -> {
+            int sum = 0;
+            for (BlackjackEngine engine : engines) {
+                sum += engine.checkGameOver();
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Resolves the same {@link #HANDS} played rounds as one {@link HandBatch}, with the Vector API
+     * when the JVM has the incubator module.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier batchCheckGameOver() {
+        HandBatch batch = playedBatch();
+        return () -> {
+            BatchHandEvaluator.evaluate(batch);
+            return batch.result(HANDS - 1);
+        };
+    }
+
+    /**
+     * Resolves the same {@link #HANDS} played rounds as one {@link HandBatch} with the scalar path only.
+     *
+     * @return The workload.
+     */
+    public static IntSupplier scalarBatchCheckGameOver() {
+        HandBatch batch = playedBatch();
+        return () -> {
+            BatchHandEvaluator.evaluateScalar(batch, 0, HANDS);
+            return batch.result(HANDS - 1);
+        };
+    }
+
+    /**
+     * Plays one full headless round with dealer rules, including any reshuffle it triggers.
+     *
+     * @param decks The number of decks in the shoe.
+     * @return The workload.
+     */
+    public static IntSupplier playRound(int decks) {
+        BlackjackEngine engine = new BlackjackEngine(new Shoe(decks, Shoe.DEFAULT_PENETRATION, new SplittableRandom(3)));
+        return () -> {
+            int result = engine.playRound(PlayerStrategy.DEALER_RULES);
+            engine.resetRound();
+            return result;
+        };
+    }
+
+    /**
+     * Plays one full headless round with dealer rules under a rule variant (dealer hits soft 17, Six-Card
+     * Charlie, blackjack pays 3:2), which should cost no more than a round under the default rules.
+     *
+     * @param decks The number of decks in the shoe.
+     * @return The workload.
+     */
+    public static IntSupplier playVariantRound(int decks) {
+        RuleSet rules = RuleSet.parse("h17,charlie=6,bj=3:2").withDecks(decks);
+        BlackjackEngine engine = new BlackjackEngine(rules.newShoe(new SplittableRandom(3)), rules);
+        return () -> {
+            int result = engine.playRound(PlayerStrategy.DEALER_RULES);
+            engine.resetRound();
+            return result;
+        };
+    }
+
+    /**
+     * Generates {@link #HANDS} random hands of two to five cards from a fixed seed.
+     *
+     * @return The encoded cards of each hand.
+     */
+    private static int[][] randomHands() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[][] hands = new int[HANDS][];
+        for (int i = 0; i < HANDS; i++) {
+            hands[i] = new int[2 + random.nextInt(4)];
+            for (int j = 0; j < hands[i].length; j++) {
+                hands[i][j] = random.nextInt(Card.DECK_SIZE);
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Plays {@link #HANDS} rounds with dealer rules, each on its own seeded engine, and leaves the hands in place.
+     *
+     * @return The engines holding the finished rounds.
+     */
+    private static BlackjackEngine[] playedRounds() {
+        BlackjackEngine[] engines = new BlackjackEngine[HANDS];
+        for (int i = 0; i < HANDS; i++) {
+            engines[i] = new BlackjackEngine(new Shoe(1, Shoe.DEFAULT_PENETRATION, new SplittableRandom(i)));
+            engines[i].playRound(PlayerStrategy.DEALER_RULES);
+        }
+        return engines;
+    }
+
+    /**
+     * Lays out the rounds of {@link #playedRounds()} as a batch.
+     *
+     * @return The batch.
+     */
+    private static HandBatch playedBatch() {
+        HandBatch batch = new HandBatch(HANDS);
+        for (BlackjackEngine engine : playedRounds()) {
+            batch.add(engine);
+        }
+        return batch;
+    }
+
+    /**
+     * Converts a hand into the original list of card names.
+     *
+     * @param hand The hand.
+     * @return The hand as card names.
+     */
+    private static List<String> legacyHand(Hand hand) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < hand.size(); i++) {
+            names.add(Card.name(hand.card(i)));
+        }
+        return names;
+    }
+
+    /**
+     * Converts encoded hands into the original lists of card names.
+     *
+     * @param cardHands The encoded hands.
+     * @return The hands as card names.
+     */
+    private static List<List<String>> legacyHands(int[][] cardHands) {
+        List<List<String>> hands = new ArrayList<>();
+        for (int[] cards : cardHands) {
+            List<String> hand = new ArrayList<>();
+            for (int card : cards) {
+                hand.add(Card.name(card));
+            }
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    /**
+     * Converts encoded hands into Hand objects.
+     *
+     * @param cardHands The encoded hands.
+     * @return The built hands.
+     */
+    private static Hand[] hands(int[][] cardHands) {
+        Hand[] hands = new Hand[cardHands.length];
+        for (int i = 0; i < cardHands.length; i++) {
+            hands[i] = new Hand();
+            for (int card : cardHands[i]) {
+                hands[i].add(card);
+            }
+        }
+        return hands;
+    }
+}
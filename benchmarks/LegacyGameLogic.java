@@ -0,0 +1,140 @@
+import java.util.*;
+
+/**
+ * The LegacyGameLogic class keeps a copy of the original String-based deck, shuffle and hand scoring
+ * from BlackjackGame, so the benchmarks can report before/after numbers against the current engine.
+ */
+public class LegacyGameLogic {
+    private final Map<String, Integer> cardValueMap = new HashMap<>();
+    private final List<String> deck = new ArrayList<>();
+    private Stack<String> cardStack = new Stack<>();
+
+    /**
+     * Constructs the legacy deck with 52 named cards and their values.
+     */
+    public LegacyGameLogic() {
+        String[] suits = {"Clubs", "Diamonds", "Hearts", "Spades"};
+        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "Jack", "Queen", "King", "Ace"};
+
+        for (String suit : suits) {
+            for (int i = 0; i < ranks.length; i++) {
+                String cardName = ranks[i] + " of " + suit;
+                int value = ranks[i].equals("Ace") ? 11 : (i >= 8 ? 10 : i + 2);
+                deck.add(cardName);
+                cardValueMap.put(cardName, value);
+            }
+        }
+        shuffleDeck();
+    }
+
+    /**
+     * Shuffles the deck the original way, removing random indexes from a temporary list.
+     */
+    public void shuffleDeck() {
+        List<String> tempDeck = new ArrayList<>(deck);
+        Random random = new Random();
+        cardStack = new Stack<>();
+
+        while (!tempDeck.isEmpty()) {
+            int index = random.nextInt(tempDeck.size());
+            cardStack.add(tempDeck.get(index));
+            tempDeck.remove(index);
+        }
+    }
+
+    /**
+     * Deals the top card of the stack.
+     *
+     * @return The card name.
+     */
+    public String deal() {
+        return cardStack.pop();
+    }
+
+    /**
+     * Retrieves the number of cards left on the stack.
+     *
+     * @return The remaining card count.
+     */
+    public int remaining() {
+        return cardStack.size();
+    }
+
+    /**
+     * Counts a hand's value with the original HashMap lookup and ace loop.
+     *
+     * @param hand The hand to score.
+     * @return The hand value.
+     */
+    public int countHandValue(List<String> hand) {
+        int value = 0;
+        int aceCount = 0;
+
+        for (String card : hand) {
+            int cardValue = cardValueMap.get(card);
+
+            if (cardValue == 11) {
+                aceCount++;
+            } else {
+                value += cardValue;
+            }
+        }
+
+        while (aceCount > 0) {
+            if (value + 11 <= 21) {
+                value += 11;
+            } else {
+                value += 1;
+            }
+            aceCount--;
+        }
+
+        if (hand.size() == 5 && value < 21) {
+            value = 21;
+        }
+
+        return value;
+    }
+
+    /**
+     * Determines the outcome of a hand pair the original way, rescanning both hands.
+     *
+     * @param playerHand The player's hand.
+     * @param dealerHand The dealer's hand.
+     * @param dealerPlayed Whether the dealer has finished drawing.
+     * @return -1 if the game is still ongoing, 0 if the dealer wins, 1 if the player wins, or 2 if it's a tie.
+     */
+    public int checkGameOver(List<String> playerHand, List<String> dealerHand, boolean dealerPlayed) {
+        int playerValue = countHandValue(playerHand);
+        int dealerValue = countHandValue(dealerHand);
+
+        boolean playerBlackjack = (playerValue == 21 && playerHand.size() == 2);
+        boolean dealerBlackjack = (dealerValue == 21 && dealerHand.size() == 2);
+
+        if (playerBlackjack && dealerBlackjack) {
+            return 2;
+        }
+        if (playerBlackjack) {
+            return 1;
+        }
+        if (dealerBlackjack) {
+            return 0;
+        }
+
+        if (!dealerPlayed) {
+            if (playerValue > 21) {
+                return 0;
+            }
+        } else {
+            if (playerValue == dealerValue) {
+                return 2;
+            } else if (dealerValue > 21 || playerValue > dealerValue) {
+                return 1;
+            } else {
+                return 0;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks resolving rounds in a structure-of-arrays batch, with the Vector API and with the scalar
+ * path, against the engine's checkGameOver over the same played rounds. Scores are per hand.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchEvaluationBenchmark {
+    private IntSupplier engineCheckGameOver;
+    private IntSupplier batchCheckGameOver;
+    private IntSupplier scalarBatchCheckGameOver;
+
+    @Setup
+    public void setup() {
+        engineCheckGameOver = Workloads.of("engineCheckGameOver");
+        batchCheckGameOver = Workloads.of("batchCheckGameOver");
+        scalarBatchCheckGameOver = Workloads.of("scalarBatchCheckGameOver");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int engineCheckGameOver() {
+        return engineCheckGameOver.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int batchCheckGameOver() {
+        return batchCheckGameOver.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int scalarBatchCheckGameOver() {
+        return scalarBatchCheckGameOver.getAsInt();
+    }
+}
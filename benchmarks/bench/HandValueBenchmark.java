@@ -0,0 +1,62 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks hand evaluation: the original HashMap-based countHandValue and checkGameOver against
+ * the lookup-table Hand, over the same random hands and played rounds. Scores are per hand.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandValueBenchmark {
+    private IntSupplier legacyCountHandValue;
+    private IntSupplier handValue;
+    private IntSupplier handBuildAndValue;
+    private IntSupplier legacyCheckGameOver;
+    private IntSupplier engineCheckGameOver;
+
+    @Setup
+    public void setup() {
+        legacyCountHandValue = Workloads.of("legacyCountHandValue");
+        handValue = Workloads.of("handValue");
+        handBuildAndValue = Workloads.of("handBuildAndValue");
+        legacyCheckGameOver = Workloads.of("legacyCheckGameOver");
+        engineCheckGameOver = Workloads.of("engineCheckGameOver");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int legacyCountHandValue() {
+        return legacyCountHandValue.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int handValue() {
+        return handValue.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int handBuildAndValue() {
+        return handBuildAndValue.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int legacyCheckGameOver() {
+        return legacyCheckGameOver.getAsInt();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Workloads.HANDS)
+    public int engineCheckGameOver() {
+        return engineCheckGameOver.getAsInt();
+    }
+}
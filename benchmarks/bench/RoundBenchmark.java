@@ -0,0 +1,39 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks a full headless round: deal, player decisions, dealer draw, resolution and reset,
+ * including the reshuffles the cut card triggers, under the default rules and under a rule variant.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundBenchmark {
+    @Param({"1", "6"})
+    public int decks;
+
+    private IntSupplier playRound;
+    private IntSupplier playVariantRound;
+
+    @Setup
+    public void setup() {
+        playRound = Workloads.of("playRound", decks);
+        playVariantRound = Workloads.of("playVariantRound", decks);
+    }
+
+    @Benchmark
+    public int playRound() {
+        return playRound.getAsInt();
+    }
+
+    @Benchmark
+    public int playVariantRound() {
+        return playVariantRound.getAsInt();
+    }
+}
@@ -0,0 +1,32 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks reshuffling a six-deck shoe with each generator a shoe can own: SplittableRandom,
+ * L64X128MixRandom, Xoshiro256PlusPlus and SecureRandom, by their ShoeRandom ordinals.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShoeRandomBenchmark {
+    @Param({"0", "1", "2", "3"})
+    public int random;
+
+    private IntSupplier shuffle;
+
+    @Setup
+    public void setup() {
+        shuffle = Workloads.of("shoeShuffleWith", 6, random);
+    }
+
+    @Benchmark
+    public int shoeShuffle() {
+        return shuffle.getAsInt();
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks reshuffling: the original single-deck shuffleDeck against the in-place Shoe shuffle
+ * for one- and six-deck shoes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShuffleBenchmark {
+    private IntSupplier legacyShuffle;
+    private IntSupplier oneDeckShuffle;
+    private IntSupplier sixDeckShuffle;
+
+    @Setup
+    public void setup() {
+        legacyShuffle = Workloads.of("legacyShuffleDeck");
+        oneDeckShuffle = Workloads.of("shoeShuffle", 1);
+        sixDeckShuffle = Workloads.of("shoeShuffle", 6);
+    }
+
+    @Benchmark
+    public int legacyShuffleDeck() {
+        return legacyShuffle.getAsInt();
+    }
+
+    @Benchmark
+    public int shoeShuffleOneDeck() {
+        return oneDeckShuffle.getAsInt();
+    }
+
+    @Benchmark
+    public int shoeShuffleSixDecks() {
+        return sixDeckShuffle.getAsInt();
+    }
+}
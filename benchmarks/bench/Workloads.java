@@ -0,0 +1,39 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.IntSupplier;
+
+/**
+ * The Workloads class looks up the game workloads built by the default-package BenchmarkWorkloads
+ * class, which benchmark classes in this package cannot reference directly.
+ */
+final class Workloads {
+    /** The number of hands each hand-evaluation workload scores per call. */
+    static final int HANDS = 1024;
+
+    private Workloads() {
+    }
+
+    /**
+     * Builds a workload by name.
+     *
+     * @param name The name of the BenchmarkWorkloads factory method.
+     * @param args The int arguments of the factory method.
+     * @return The workload.
+     */
+    static IntSupplier of(String name, int... args) {
+        try {
+            Class<?>[] types = new Class<?>[args.length];
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                types[i] = int.class;
+                values[i] = args[i];
+            }
+            return (IntSupplier) Class.forName("BenchmarkWorkloads").getMethod(name, types).invoke(null, values);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("No benchmark workload named " + name, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to build benchmark workload " + name, e.getCause());
+        }
+    }
+}